@@ -0,0 +1,44 @@
+package org.temporaltree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sorted epoch millisecond records for the benchmarks. Dense records start just
+ * before the 2024 US/Eastern spring forward transition and are 50ms apart,
+ * sparse records are spread in small bursts over three years
+ */
+public class BenchmarkData {
+	public static final long START_UTC_MS = 1710050400000L; // 2024-03-10T06:00:00Z
+	private static final long DENSE_SPACING_MS = 50L;
+	private static final long SPARSE_SPAN_MS = 3L * 365 * 24 * 60 * 60 * 1000;
+	private static final int SPARSE_BURST = 10;
+
+	public static final EpochMillisAccessor<Long> EPOCH_MILLIS_ACCESSOR = record -> record;
+
+	private BenchmarkData() {
+	}
+
+	public static List<Long> createRecords(int recordCount, String density) {
+		List<Long> records = new ArrayList<>(recordCount);
+		if ("dense".equals(density)) {
+			for (int i = 0; i < recordCount; i++) {
+				records.add(START_UTC_MS + i * DENSE_SPACING_MS);
+			}
+		} else {
+			Random random = new Random(42);
+			long burstSpacing = SPARSE_SPAN_MS / Math.max(1, recordCount / SPARSE_BURST);
+			long time = START_UTC_MS;
+			for (int i = 0; i < recordCount; i++) {
+				if (i % SPARSE_BURST == 0) {
+					time = START_UTC_MS + (i / SPARSE_BURST) * burstSpacing;
+				} else {
+					time += 1 + random.nextInt(100);
+				}
+				records.add(time);
+			}
+		}
+		return records;
+	}
+}
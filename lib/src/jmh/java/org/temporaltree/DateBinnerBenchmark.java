@@ -0,0 +1,94 @@
+package org.temporaltree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks DateBinner construction and record placement. The DateAccessor and
+ * EpochMillisAccessor variants of placeRecordRanges compare the per record
+ * allocation of the Instant based accessor, see gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class DateBinnerBenchmark {
+	@Param({ "10000", "100000", "1000000", "10000000" })
+	public int recordCount;
+
+	@Param({ "dense", "sparse" })
+	public String density;
+
+	@Param({ "Z", "US/Eastern", "Pacific/Chatham" })
+	public String zone;
+
+	private List<Long> records;
+	private ZoneId zoneId;
+	private Instant startDatetimeUtc;
+	private Instant endDatetimeUtc;
+	private DateBinner<Long> hourBinner;
+	private final DateAccessor<Long> dateAccessor = Instant::ofEpochMilli;
+
+	@Setup
+	public void setup() {
+		records = BenchmarkData.createRecords(recordCount, density);
+		zoneId = ZoneId.of(zone);
+		startDatetimeUtc = Instant.ofEpochMilli(records.get(0));
+		endDatetimeUtc = Instant.ofEpochMilli(records.get(records.size() - 1));
+		hourBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, startDatetimeUtc, endDatetimeUtc,
+				zoneId);
+	}
+
+	@Benchmark
+	public DateBinner<Long> constructHours() {
+		return new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, startDatetimeUtc, endDatetimeUtc, zoneId);
+	}
+
+	@Benchmark
+	public DateBinner<Long> placeRecords() {
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, startDatetimeUtc,
+				endDatetimeUtc, zoneId);
+		dateBinner.placeRecords(records, BenchmarkData.EPOCH_MILLIS_ACCESSOR);
+		return dateBinner;
+	}
+
+	@Benchmark
+	public List<TemporalBinNode> placeRecordRangesDateAccessor() {
+		return hourBinner.placeRecordRanges(records, dateAccessor);
+	}
+
+	@Benchmark
+	public List<TemporalBinNode> placeRecordRangesEpochMillisAccessor() {
+		return hourBinner.placeRecordRanges(records, BenchmarkData.EPOCH_MILLIS_ACCESSOR);
+	}
+
+	@Benchmark
+	public List<TemporalBinNode> placeNonEmptyRecordRangesMinutes() {
+		return DateBinner.placeNonEmptyRecordRanges(ChronoUnit.MINUTES, ChronoField.MINUTE_OF_HOUR, records,
+				BenchmarkData.EPOCH_MILLIS_ACCESSOR, zoneId);
+	}
+
+	@Benchmark
+	public List<TemporalBinNode> temporalTreeBinner() {
+		return TemporalTreeBinner.bin(records, BenchmarkData.EPOCH_MILLIS_ACCESSOR, zoneId,
+				TreeGenerator.getDefaultTreeConfiguration());
+	}
+}
@@ -0,0 +1,94 @@
+package org.temporaltree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the getNext boundary functions, each invocation walks consecutive
+ * boundaries across the 2024 spring forward transitions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class DateBoundaryBenchmark {
+	private static final int STEPS = 1000;
+
+	@Param({ "Z", "US/Eastern", "Pacific/Chatham" })
+	public String zone;
+
+	private ZonedDateTime start;
+
+	@Setup
+	public void setup() {
+		start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(BenchmarkData.START_UTC_MS), ZoneId.of(zone))
+				.minusDays(20);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public ZonedDateTime getNextDay() {
+		ZonedDateTime current = start;
+		for (int i = 0; i < STEPS; i++) {
+			current = DateBinner.getNextDay(current);
+		}
+		return current;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public ZonedDateTime getNextHour() {
+		ZonedDateTime current = start;
+		for (int i = 0; i < STEPS; i++) {
+			current = DateBinner.getNextHour(current);
+		}
+		return current;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public ZonedDateTime getNextMinute() {
+		ZonedDateTime current = start;
+		for (int i = 0; i < STEPS; i++) {
+			current = DateBinner.getNextMinute(current);
+		}
+		return current;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public ZonedDateTime getNextSecond() {
+		ZonedDateTime current = start;
+		for (int i = 0; i < STEPS; i++) {
+			current = DateBinner.getNextSecond(current);
+		}
+		return current;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public ZonedDateTime getNextMillisecond() {
+		ZonedDateTime current = start;
+		for (int i = 0; i < STEPS; i++) {
+			current = DateBinner.getNextMillisecond(current);
+		}
+		return current;
+	}
+}
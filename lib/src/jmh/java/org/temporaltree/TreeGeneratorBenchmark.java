@@ -0,0 +1,88 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks index and temporal tree generation, including the streaming and
+ * parallel variants
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class TreeGeneratorBenchmark {
+	@Param({ "10000", "100000", "1000000", "10000000" })
+	public int recordCount;
+
+	@Param({ "dense", "sparse" })
+	public String density;
+
+	@Param({ "Z", "US/Eastern", "Pacific/Chatham" })
+	public String zone;
+
+	private final TreeGenerator<Long> generator = new TreeGenerator<>();
+	private final LeafGenerator<Long> leafGenerator = record -> {
+		ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+		leaf.put("key", record);
+		leaf.put("isLeaf", true);
+		return leaf;
+	};
+	private final LeafWriter<Long> leafWriter = (jsonGenerator, record) -> {
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeNumberField("key", record);
+		jsonGenerator.writeBooleanField("isLeaf", true);
+		jsonGenerator.writeEndObject();
+	};
+	private List<Long> records;
+	private ZoneId zoneId;
+
+	@Setup
+	public void setup() {
+		records = BenchmarkData.createRecords(recordCount, density);
+		zoneId = ZoneId.of(zone);
+	}
+
+	@Benchmark
+	public ObjectNode generateIndexTree() {
+		return generator.generateIndexTree(records, leafGenerator, 0, records.size() - 1);
+	}
+
+	@Benchmark
+	public ArrayNode generateTemporalTreeChildren() {
+		return generator.generateTemporalTreeChildren(records, BenchmarkData.EPOCH_MILLIS_ACCESSOR, leafGenerator,
+				zoneId, null);
+	}
+
+	@Benchmark
+	public ArrayNode generateTemporalTreeChildrenParallel() {
+		return generator.generateTemporalTreeChildren(records, BenchmarkData.EPOCH_MILLIS_ACCESSOR, leafGenerator,
+				zoneId, null, ForkJoinPool.commonPool(), 10000);
+	}
+
+	@Benchmark
+	public void writeTemporalTreeChildren() throws IOException {
+		generator.writeTemporalTreeChildren(OutputStream.nullOutputStream(), records,
+				BenchmarkData.EPOCH_MILLIS_ACCESSOR, leafWriter, zoneId, null);
+	}
+}
@@ -0,0 +1,124 @@
+package org.temporaltree;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AdaptiveTreeBinner bins sorted records into a tree with bounded fan-out. For
+ * each node the coarsest level splitting its records into at least
+ * minChildren bins is used, levels producing a single bin are skipped, and a
+ * level producing more than maxChildren bins falls back to the coarser level
+ * that split the records. When no level splits the records within bounds,
+ * such as a burst within a single millisecond, the records are split into
+ * index chunks. Nodes holding at most maxChildren records have leaves as
+ * children
+ */
+public class AdaptiveTreeBinner {
+
+	private AdaptiveTreeBinner() {
+	}
+
+	/**
+	 * Bins all records
+	 * 
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @param configuration
+	 * @return top level bins
+	 */
+	public static <T> List<TemporalBinNode> bin(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+			ZoneId zoneId, AdaptiveTreeConfiguration configuration) {
+		return bin(TimestampColumn.of(records, epochMillisAccessor), 0, records.size(), zoneId, configuration);
+	}
+
+	/**
+	 * Bins the timestamps in the range [fromIndex, toIndex) of a column
+	 * 
+	 * @param timestamps    sorted timestamps
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param zoneId
+	 * @param configuration
+	 * @return top level bins
+	 */
+	public static List<TemporalBinNode> bin(TimestampColumn timestamps, int fromIndex, int toIndex, ZoneId zoneId,
+			AdaptiveTreeConfiguration configuration) {
+		if (fromIndex >= toIndex) {
+			return new ArrayList<>();
+		}
+		return binChildren(timestamps, fromIndex, toIndex, Long.MAX_VALUE, zoneId, configuration, 0);
+	}
+
+	private static List<TemporalBinNode> binChildren(TimestampColumn timestamps, int fromIndex, int toIndex,
+			long endUtcMs, ZoneId zoneId, AdaptiveTreeConfiguration configuration, int level) {
+		List<TemporalTreeConfiguration> levels = configuration.levels();
+		int maxChildren = configuration.maxChildren();
+		List<TemporalBinNode> chosen = null;
+		int chosenLevel = -1;
+		for (int l = level; l < levels.size(); l++) {
+			List<TemporalBinNode> ranges = placeRanges(timestamps, fromIndex, toIndex, endUtcMs, zoneId,
+					levels.get(l), maxChildren + 1);
+			if (ranges.size() > maxChildren) {
+				break;
+			}
+			if (ranges.size() >= 2) {
+				chosen = ranges;
+				chosenLevel = l;
+				if (ranges.size() >= configuration.minChildren()) {
+					break;
+				}
+			}
+		}
+
+		List<TemporalBinNode> children = new ArrayList<>();
+		if (chosen == null) {
+			// no level splits the records within bounds, split them by index
+			int chunkSize = (toIndex - fromIndex + maxChildren - 1) / maxChildren;
+			for (int i = fromIndex; i < toIndex; i += chunkSize) {
+				int chunkEnd = Math.min(toIndex, i + chunkSize);
+				List<TemporalBinNode> chunkChildren = chunkEnd - i > maxChildren
+						? binChildren(timestamps, i, chunkEnd, endUtcMs, zoneId, configuration, level)
+						: List.of();
+				children.add(new TemporalBinNode(null, null, timestamps.getEpochMillis(i),
+						timestamps.getEpochMillis(chunkEnd - 1) + 1, i, chunkEnd, chunkChildren));
+			}
+			return children;
+		}
+		for (TemporalBinNode range : chosen) {
+			List<TemporalBinNode> rangeChildren = range.count() > maxChildren
+					? binChildren(timestamps, range.fromIndex(), range.toIndex(), range.endUtcMs(), zoneId,
+							configuration, chosenLevel + 1)
+					: List.of();
+			children.add(new TemporalBinNode(range.configuration(), range.date(), range.startUtcMs(),
+					range.endUtcMs(), range.fromIndex(), range.toIndex(), rangeChildren));
+		}
+		return children;
+	}
+
+	/**
+	 * Places the records in [fromIndex, toIndex) into the non-empty bins of a
+	 * level, stopping once limit bins have been placed. Bin ends are clamped to
+	 * the end of the parent
+	 */
+	private static List<TemporalBinNode> placeRanges(TimestampColumn timestamps, int fromIndex, int toIndex,
+			long endUtcMs, ZoneId zoneId, TemporalTreeConfiguration levelConfiguration, int limit) {
+		List<TemporalBinNode> ranges = new ArrayList<>();
+		int index = fromIndex;
+		while (index < toIndex && ranges.size() < limit) {
+			long datetimeUtc = timestamps.getEpochMillis(index);
+			ZonedDateTime start = DateBinner.getStart(levelConfiguration.timeUnit(),
+					ZonedDateTime.ofInstant(Instant.ofEpochMilli(datetimeUtc), zoneId));
+			long startUtcMs = start.toInstant().toEpochMilli();
+			long end = Math.min(endUtcMs,
+					DateBoundaryCalculator.getNext(levelConfiguration.timeUnit(), startUtcMs, zoneId));
+			int rangeEnd = DateBinner.findFirstAtOrAfter(timestamps, index + 1, toIndex, end);
+			ranges.add(new TemporalBinNode(levelConfiguration, start, startUtcMs, end, index, rangeEnd, List.of()));
+			index = rangeEnd;
+		}
+		return ranges;
+	}
+}
@@ -0,0 +1,81 @@
+package org.temporaltree;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Configuration for adaptive temporal trees. Rather than breaking every bin
+ * down at a fixed breakLimit, the granularity of each node's children is
+ * picked from the levels, coarsest first, to keep the number of children
+ * within [minChildren, maxChildren]. The breakLimit and breakConfiguration of
+ * the levels are ignored
+ */
+public record AdaptiveTreeConfiguration(int minChildren, int maxChildren, List<TemporalTreeConfiguration> levels) {
+
+    private static final List<TemporalTreeConfiguration> DEFAULT_LEVELS = initDefaultLevels();
+
+    public AdaptiveTreeConfiguration {
+        if (minChildren < 2 || maxChildren < minChildren) {
+            throw new IllegalArgumentException(
+                    "Invalid child count range [" + minChildren + ", " + maxChildren + "]");
+        }
+    }
+
+    /**
+     * Creates a configuration over the year, month, day, hour, minute, second and
+     * millisecond levels
+     * 
+     * @param minChildren
+     * @param maxChildren
+     * @return
+     */
+    public static AdaptiveTreeConfiguration of(int minChildren, int maxChildren) {
+        return new AdaptiveTreeConfiguration(minChildren, maxChildren, DEFAULT_LEVELS);
+    }
+
+    private static List<TemporalTreeConfiguration> initDefaultLevels() {
+        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yyyy");
+        DateTimeFormatter monthKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM");
+        DateTimeFormatter monthTitleFormatter = DateTimeFormatter.ofPattern("MMMM yyyy");
+        DateTimeFormatter dayTitleFormatter = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy");
+        DateTimeFormatter secondKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss z");
+        DateTimeFormatter secondTitleFormatter = DateTimeFormatter.ofPattern("hh:mm:ss a z");
+        DateTimeFormatter millisecondKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss.SSS z");
+        DateTimeFormatter millisecondTitleFormatter = DateTimeFormatter.ofPattern("hh:mm:ss.SSS a z");
+
+        return List.of(
+                level(ChronoUnit.YEARS, ChronoField.YEAR, yearFormatter::format, yearFormatter::format),
+                level(ChronoUnit.MONTHS, ChronoField.MONTH_OF_YEAR, monthKeyFormatter::format,
+                        monthTitleFormatter::format),
+                level(ChronoUnit.DAYS, ChronoField.EPOCH_DAY, DateKeyFormats::formatDay, dayTitleFormatter::format),
+                level(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, DateKeyFormats::formatHour,
+                        date -> TreeGenerator.generateHourLabel(date, DateBinner.getNextHour(date).minusMinutes(1))),
+                level(ChronoUnit.MINUTES, ChronoField.MINUTE_OF_HOUR, DateKeyFormats::formatMinute,
+                        date -> TreeGenerator.generateMinuteLabel(date,
+                                DateBinner.getNextMinute(date).minusSeconds(1))),
+                level(ChronoUnit.SECONDS, ChronoField.SECOND_OF_MINUTE, secondKeyFormatter::format,
+                        secondTitleFormatter::format),
+                level(ChronoUnit.MILLIS, ChronoField.MILLI_OF_SECOND, millisecondKeyFormatter::format,
+                        millisecondTitleFormatter::format));
+    }
+
+    private interface DateFormat {
+        String format(ZonedDateTime zonedDateTime);
+    }
+
+    private static TemporalTreeConfiguration level(ChronoUnit timeUnit, ChronoField timeField, DateFormat keyFormat,
+            DateFormat titleFormat) {
+        return new TemporalTreeConfiguration(timeUnit, timeField, new DateKeyGenerator() {
+            public String generateKey(ZonedDateTime zonedDateTime) {
+                return keyFormat.format(zonedDateTime);
+            }
+        }, new DateTitleGenerator() {
+            public String generateTitle(ZonedDateTime zonedDateTime) {
+                return titleFormat.format(zonedDateTime);
+            }
+        }, -1, null);
+    }
+}
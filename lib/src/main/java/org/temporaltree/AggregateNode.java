@@ -0,0 +1,39 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node of an aggregate temporal tree, summarizing the records of a bin by their
+ * count, first and last timestamps and reduced values instead of holding leaves
+ */
+public record AggregateNode(String key, String title, long startUtcMs, long endUtcMs, long count,
+        long firstUtcMs, long lastUtcMs, Map<String, Double> reductions, List<AggregateNode> children) {
+
+    /**
+     * Converts the node and its children to ObjectNodes with the key, title and
+     * children of tree nodes and the aggregates as additional fields
+     * 
+     * @return
+     */
+    public ObjectNode toObjectNode() {
+        ObjectNode node = TreeUtils.createNodeWithChildren(key, title);
+        node.put("count", count);
+        node.put("startUtcMs", startUtcMs);
+        node.put("endUtcMs", endUtcMs);
+        node.put("firstUtcMs", firstUtcMs);
+        node.put("lastUtcMs", lastUtcMs);
+        if (!reductions.isEmpty()) {
+            ObjectNode values = node.putObject("reductions");
+            reductions.forEach(values::put);
+        }
+        ArrayNode childNodes = (ArrayNode) node.get("children");
+        for (AggregateNode child : children) {
+            childNodes.add(child.toObjectNode());
+        }
+        return node;
+    }
+}
@@ -0,0 +1,55 @@
+package org.temporaltree;
+
+import java.util.List;
+
+/**
+ * Named reduction of a numeric record value computed for every node of an
+ * aggregate tree. Values are reduced over the records of undivided bins and
+ * combined from the children of divided bins
+ */
+public record AggregateReducer<T>(String name, Reduction reduction, ValueAccessor<T> valueAccessor) {
+
+    public enum Reduction {
+        SUM, MIN, MAX;
+
+        double combine(double a, double b) {
+            switch (this) {
+            case MIN:
+                return Math.min(a, b);
+            case MAX:
+                return Math.max(a, b);
+            default:
+                return a + b;
+            }
+        }
+    }
+
+    public static <T> AggregateReducer<T> sum(String name, ValueAccessor<T> valueAccessor) {
+        return new AggregateReducer<>(name, Reduction.SUM, valueAccessor);
+    }
+
+    public static <T> AggregateReducer<T> min(String name, ValueAccessor<T> valueAccessor) {
+        return new AggregateReducer<>(name, Reduction.MIN, valueAccessor);
+    }
+
+    public static <T> AggregateReducer<T> max(String name, ValueAccessor<T> valueAccessor) {
+        return new AggregateReducer<>(name, Reduction.MAX, valueAccessor);
+    }
+
+    /**
+     * Reduces the values of the records in the range [fromIndex, toIndex), the
+     * range must not be empty
+     * 
+     * @param records
+     * @param fromIndex
+     * @param toIndex
+     * @return
+     */
+    public double reduce(List<T> records, int fromIndex, int toIndex) {
+        double value = valueAccessor.getValue(records.get(fromIndex));
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            value = reduction.combine(value, valueAccessor.getValue(records.get(i)));
+        }
+        return value;
+    }
+}
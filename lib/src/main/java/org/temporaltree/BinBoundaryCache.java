@@ -0,0 +1,190 @@
+package org.temporaltree;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Thread safe, bounded cache of bin boundaries keyed by zone, unit and period.
+ * Time is divided into utc periods of 64 units and an entry holds the bins
+ * overlapping a period, so any range of records, however it is shifted, is
+ * served from the periods it covers. Entries are weighed by their number of
+ * bins and the least recently used are evicted once the maximum is reached.
+ * TemporalTreeBinner takes its boundaries from the shared default cache
+ */
+public class BinBoundaryCache {
+    private static final long BINS_PER_PERIOD = 64;
+    private static final BinBoundaryCache DEFAULT_CACHE = new BinBoundaryCache(100_000);
+
+    /**
+     * Boundaries for a range of bins, bin i starts at dates[i] and covers
+     * [boundaries[i], boundaries[i + 1]). The arrays are shared between binners
+     * and must not be modified
+     */
+    public record BinBoundaries(ZonedDateTime[] dates, long[] values, long[] boundaries) {
+        public int size() {
+            return dates.length;
+        }
+    }
+
+    /**
+     * Boundaries of the bins overlapping a period, bin i starts at dates[i] and
+     * covers [boundaries[i], boundaries[i + 1]). The arrays are shared and must
+     * not be modified
+     */
+    public record PeriodBoundaries(ZonedDateTime[] dates, long[] boundaries) {
+        public int size() {
+            return dates.length;
+        }
+
+        /**
+         * Returns true when a bin of the period contains the time
+         * 
+         * @param epochMillis
+         * @return
+         */
+        public boolean contains(long epochMillis) {
+            return epochMillis >= boundaries[0] && epochMillis < boundaries[dates.length];
+        }
+
+        /**
+         * Returns the index of the bin containing a time within the period
+         * 
+         * @param epochMillis
+         * @return
+         */
+        public int indexOf(long epochMillis) {
+            int index = Arrays.binarySearch(boundaries, epochMillis);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+
+    private record PeriodKey(ZoneId zoneId, ChronoUnit timeUnit, long period) {
+    }
+
+    private final Cache<PeriodKey, PeriodBoundaries> cache;
+
+    /**
+     * Constructor
+     * 
+     * @param maximumBins maximum number of bins held across all entries
+     */
+    public BinBoundaryCache(long maximumBins) {
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBins)
+                .weigher((PeriodKey key, PeriodBoundaries boundaries) -> boundaries.size())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache shared by tree builds
+     * 
+     * @return
+     */
+    public static BinBoundaryCache getDefault() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Returns the boundaries of the bins overlapping the period containing a time,
+     * generating them on a miss
+     * 
+     * @param timeUnit
+     * @param epochMillis
+     * @param zoneId
+     * @return
+     */
+    public PeriodBoundaries getPeriod(ChronoUnit timeUnit, long epochMillis, ZoneId zoneId) {
+        long width = DateBoundaryCalculator.getWidth(timeUnit) * BINS_PER_PERIOD;
+        long period = Math.floorDiv(epochMillis, width);
+        try {
+            return cache.get(new PeriodKey(zoneId, timeUnit, period),
+                    () -> generatePeriod(timeUnit, period * width, period * width + width, zoneId));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate bin boundaries", e.getCause());
+        }
+    }
+
+    private static PeriodBoundaries generatePeriod(ChronoUnit timeUnit, long startUtcMs, long endUtcMs,
+            ZoneId zoneId) {
+        List<ZonedDateTime> dates = new ArrayList<>();
+        List<Long> boundaries = new ArrayList<>();
+        ZonedDateTime date = DateBinner.getStart(timeUnit,
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(startUtcMs), zoneId));
+        long boundary = date.toInstant().toEpochMilli();
+        boundaries.add(boundary);
+        while (boundary < endUtcMs) {
+            dates.add(date);
+            boundary = DateBoundaryCalculator.getNext(timeUnit, boundary, zoneId);
+            boundaries.add(boundary);
+            date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(boundary), zoneId);
+        }
+        return new PeriodBoundaries(dates.toArray(new ZonedDateTime[0]),
+                boundaries.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Returns the boundaries from the bin starting at startDate up to and
+     * including the bin containing endDatetimeUtc, assembled from the cached
+     * periods
+     * 
+     * @param timeUnit
+     * @param timeField
+     * @param startDate      start of the first bin
+     * @param endDatetimeUtc
+     * @return
+     */
+    public BinBoundaries getBoundaries(ChronoUnit timeUnit, ChronoField timeField, ZonedDateTime startDate,
+            Instant endDatetimeUtc) {
+        ZoneId zoneId = startDate.getZone();
+        long endTime = endDatetimeUtc.toEpochMilli();
+        List<ZonedDateTime> dates = new ArrayList<>();
+        List<Long> boundaries = new ArrayList<>();
+        long time = startDate.toInstant().toEpochMilli();
+        boundaries.add(time);
+        while (time <= endTime) {
+            PeriodBoundaries period = getPeriod(timeUnit, time, zoneId);
+            for (int i = period.indexOf(time); i < period.size() && time <= endTime; i++) {
+                dates.add(period.dates()[i]);
+                time = period.boundaries()[i + 1];
+                boundaries.add(time);
+            }
+        }
+        long[] values = new long[dates.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dates.get(i).getLong(timeField);
+        }
+        return new BinBoundaries(dates.toArray(new ZonedDateTime[0]), values,
+                boundaries.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,127 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * View of a node in a BinaryTreeReader buffer. The node header is decoded on
+ * creation, children and leaf JSON are only decoded when requested
+ */
+public class BinaryTreeNode {
+    private final BinaryTreeReader reader;
+    private final byte tag;
+    private int keyIndex;
+    private int titleIndex;
+    private long startUtcMs;
+    private long endUtcMs;
+    private int childCount;
+    private final int contentOffset;
+    private final int contentLength;
+
+    BinaryTreeNode(BinaryTreeReader reader, int offset) {
+        this.reader = reader;
+        this.tag = reader.getByte(offset);
+        int[] position = new int[] { offset + 1 };
+        if (tag == BinaryTreeWriter.LEAF) {
+            contentLength = (int) reader.readVarLong(position);
+            contentOffset = position[0];
+            return;
+        }
+        keyIndex = (int) reader.readVarLong(position);
+        titleIndex = (int) reader.readVarLong(position);
+        if (tag == BinaryTreeWriter.RANGE_NODE) {
+            long zigzag = reader.readVarLong(position);
+            startUtcMs = (zigzag >>> 1) ^ -(zigzag & 1);
+            endUtcMs = startUtcMs + reader.readVarLong(position);
+        }
+        childCount = (int) reader.readVarLong(position);
+        contentLength = reader.getInt(position[0]);
+        contentOffset = position[0] + 4;
+    }
+
+    public boolean isLeaf() {
+        return tag == BinaryTreeWriter.LEAF;
+    }
+
+    /**
+     * Whether the node carries a utc epoch millisecond range, true for nodes
+     * written from temporal bins
+     * 
+     * @return
+     */
+    public boolean hasRange() {
+        return tag == BinaryTreeWriter.RANGE_NODE;
+    }
+
+    public String getKey() {
+        return isLeaf() ? null : reader.getString(keyIndex);
+    }
+
+    public String getTitle() {
+        return isLeaf() ? null : reader.getString(titleIndex);
+    }
+
+    public long getStartUtcMs() {
+        return startUtcMs;
+    }
+
+    public long getEndUtcMs() {
+        return endUtcMs;
+    }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    /**
+     * Decodes the headers of the children of the node, leaves have no children
+     * 
+     * @return
+     */
+    public List<BinaryTreeNode> getChildren() {
+        return isLeaf() ? List.of() : reader.readNodes(contentOffset, childCount);
+    }
+
+    /**
+     * Parses the JSON of a leaf node
+     * 
+     * @return
+     */
+    public JsonNode getLeaf() {
+        if (!isLeaf()) {
+            throw new IllegalStateException("Node is not a leaf: " + getKey());
+        }
+        try {
+            return TreeUtils.OBJECT_MAPPER.readTree(reader.getBytes(contentOffset, contentLength));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts the node and its subtree to the ObjectNode shape produced by
+     * TreeGenerator
+     * 
+     * @return
+     */
+    public JsonNode toJsonNode() {
+        if (isLeaf()) {
+            return getLeaf();
+        }
+        ObjectNode node = TreeUtils.createNodeWithChildren(getKey(), getTitle());
+        ArrayNode children = (ArrayNode) node.get("children");
+        for (BinaryTreeNode child : getChildren()) {
+            children.add(child.toJsonNode());
+        }
+        return node;
+    }
+
+    int getEndOffset() {
+        return contentOffset + contentLength;
+    }
+}
@@ -0,0 +1,157 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads trees written by BinaryTreeWriter in place. Nodes are decoded from the
+ * buffer as they are navigated and subtrees that are not visited are skipped,
+ * so a tree can be browsed without deserializing it. Reads use absolute buffer
+ * positions and readers may be shared between threads
+ */
+public class BinaryTreeReader {
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int nodesOffset;
+
+    /**
+     * @param buffer buffer holding a tree written by BinaryTreeWriter, read from
+     *               position zero
+     */
+    public BinaryTreeReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < 12 || buffer.getInt(0) != BinaryTreeWriter.MAGIC) {
+            throw new IllegalArgumentException("Buffer does not contain a binary tree");
+        }
+        this.strings = new String[buffer.getInt(4)];
+        this.nodesOffset = buffer.getInt(8);
+    }
+
+    public BinaryTreeReader(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Memory maps a binary tree file
+     * 
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static BinaryTreeReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Binary tree files are limited to 2GB: " + path);
+            }
+            return new BinaryTreeReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the root nodes
+     * 
+     * @return
+     */
+    public List<BinaryTreeNode> getRoots() {
+        int[] position = new int[] { nodesOffset };
+        int count = (int) readVarLong(position);
+        return readNodes(position[0], count);
+    }
+
+    /**
+     * Follows a path of keys from the roots
+     * 
+     * @param keys
+     * @return the node at the end of the path, or null if there is none
+     */
+    public BinaryTreeNode find(String... keys) {
+        List<BinaryTreeNode> nodes = getRoots();
+        BinaryTreeNode found = null;
+        for (String key : keys) {
+            found = null;
+            for (BinaryTreeNode node : nodes) {
+                if (!node.isLeaf() && key.equals(node.getKey())) {
+                    found = node;
+                    break;
+                }
+            }
+            if (found == null) {
+                return null;
+            }
+            nodes = found.getChildren();
+        }
+        return found;
+    }
+
+    /**
+     * Converts the whole tree to the ObjectNode shape produced by TreeGenerator
+     * 
+     * @return
+     */
+    public ArrayNode toArrayNode() {
+        ArrayNode roots = TreeUtils.OBJECT_MAPPER.createArrayNode();
+        for (BinaryTreeNode root : getRoots()) {
+            roots.add(root.toJsonNode());
+        }
+        return roots;
+    }
+
+    List<BinaryTreeNode> readNodes(int offset, int count) {
+        List<BinaryTreeNode> nodes = new ArrayList<>(count);
+        int position = offset;
+        for (int i = 0; i < count; i++) {
+            BinaryTreeNode node = new BinaryTreeNode(this, position);
+            nodes.add(node);
+            position = node.getEndOffset();
+        }
+        return nodes;
+    }
+
+    String getString(int index) {
+        String value = strings[index];
+        if (value == null) {
+            int[] position = new int[] { buffer.getInt(12 + index * 4) };
+            int length = (int) readVarLong(position);
+            value = new String(getBytes(position[0], length), StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    byte getByte(int offset) {
+        return buffer.get(offset);
+    }
+
+    int getInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    byte[] getBytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads a varint at position[0], advancing it
+     */
+    long readVarLong(int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position[0]++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
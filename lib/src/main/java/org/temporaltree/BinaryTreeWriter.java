@@ -0,0 +1,252 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes trees in a compact binary format readable in place by
+ * BinaryTreeReader. Keys and titles are stored once in a string table and
+ * referenced by varint index, every node is prefixed with the byte length of
+ * its children so readers can skip subtrees, temporal nodes carry their utc
+ * epoch millisecond range and leaves are stored as JSON.
+ * 
+ * <pre>
+ * header   int magic, int string count, int nodes offset
+ * strings  int offset per string, then per string varint length and UTF-8 bytes
+ * nodes    varint root count, then the root nodes
+ * node     byte tag, then for NODE and RANGE_NODE
+ *              varint key, varint title,
+ *              RANGE_NODE only: zigzag varint start, varint end - start,
+ *              varint child count, int children length, children
+ *          for LEAF varint length, JSON bytes
+ * </pre>
+ */
+public class BinaryTreeWriter {
+    static final int MAGIC = 0x54544231;
+    static final byte NODE = 0;
+    static final byte RANGE_NODE = 1;
+    static final byte LEAF = 2;
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteSink nodes = new ByteSink();
+
+    private BinaryTreeWriter() {
+    }
+
+    /**
+     * Writes root nodes in the ObjectNode shape produced by TreeGenerator, objects
+     * with only key, title and children fields are written as nodes and
+     * everything else as leaves
+     * 
+     * @param roots
+     * @return
+     * @throws IOException
+     */
+    public static byte[] write(ArrayNode roots) throws IOException {
+        BinaryTreeWriter writer = new BinaryTreeWriter();
+        writer.nodes.writeVarLong(roots.size());
+        for (JsonNode root : roots) {
+            writer.writeJsonNode(root);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes a single root node in the ObjectNode shape produced by TreeGenerator
+     * 
+     * @param root
+     * @return
+     * @throws IOException
+     */
+    public static byte[] write(ObjectNode root) throws IOException {
+        return write(TreeUtils.OBJECT_MAPPER.createArrayNode().add(root));
+    }
+
+    /**
+     * Writes the root nodes to an output stream
+     * 
+     * @param roots
+     * @param outputStream
+     * @throws IOException
+     */
+    public static void write(ArrayNode roots, OutputStream outputStream) throws IOException {
+        outputStream.write(write(roots));
+    }
+
+    /**
+     * Writes the temporal tree for bins produced by the TemporalTreeBinner,
+     * including the utc epoch millisecond range of every node
+     * 
+     * @param records       the sorted records the bins were generated from
+     * @param bins
+     * @param leafGenerator
+     * @return
+     * @throws IOException
+     */
+    public static <T> byte[] writeTemporalTree(List<T> records, List<TemporalBinNode> bins,
+            LeafGenerator<T> leafGenerator) throws IOException {
+        BinaryTreeWriter writer = new BinaryTreeWriter();
+        BulkLeafGenerator<T> bulkLeafGenerator = BulkLeafGenerator.of(leafGenerator);
+        writer.nodes.writeVarLong(bins.size());
+        for (TemporalBinNode bin : bins) {
+            writer.writeBin(records, bin, bulkLeafGenerator);
+        }
+        return writer.toByteArray();
+    }
+
+    private <T> void writeBin(List<T> records, TemporalBinNode bin, BulkLeafGenerator<T> leafGenerator)
+            throws IOException {
+        nodes.writeByte(RANGE_NODE);
+        nodes.writeVarLong(getStringIndex(bin.generateKey()));
+        nodes.writeVarLong(getStringIndex(bin.generateTitle()));
+        nodes.writeVarLong((bin.startUtcMs() << 1) ^ (bin.startUtcMs() >> 63));
+        nodes.writeVarLong(bin.endUtcMs() - bin.startUtcMs());
+        if (bin.children().isEmpty()) {
+            List<ObjectNode> leaves = leafGenerator.generateLeaves(bin.records(records));
+            nodes.writeVarLong(leaves.size());
+            int lengthPosition = nodes.reserveInt();
+            for (ObjectNode leaf : leaves) {
+                writeLeaf(leaf != null ? leaf : NullNode.getInstance());
+            }
+            nodes.setInt(lengthPosition, nodes.size() - lengthPosition - 4);
+        } else {
+            nodes.writeVarLong(bin.children().size());
+            int lengthPosition = nodes.reserveInt();
+            for (TemporalBinNode child : bin.children()) {
+                writeBin(records, child, leafGenerator);
+            }
+            nodes.setInt(lengthPosition, nodes.size() - lengthPosition - 4);
+        }
+    }
+
+    private void writeJsonNode(JsonNode node) throws IOException {
+        if (!isTreeNode(node)) {
+            writeLeaf(node);
+            return;
+        }
+        JsonNode children = node.get("children");
+        nodes.writeByte(NODE);
+        nodes.writeVarLong(getStringIndex(node.get("key").textValue()));
+        nodes.writeVarLong(getStringIndex(node.get("title").textValue()));
+        nodes.writeVarLong(children.size());
+        int lengthPosition = nodes.reserveInt();
+        for (JsonNode child : children) {
+            writeJsonNode(child);
+        }
+        nodes.setInt(lengthPosition, nodes.size() - lengthPosition - 4);
+    }
+
+    private void writeLeaf(JsonNode leaf) throws IOException {
+        byte[] json = TreeUtils.OBJECT_MAPPER.writeValueAsBytes(leaf);
+        nodes.writeByte(LEAF);
+        nodes.writeVarLong(json.length);
+        nodes.writeBytes(json);
+    }
+
+    private static boolean isTreeNode(JsonNode node) {
+        return node.isObject() && node.size() == 3 && node.path("key").isTextual()
+                && node.path("title").isTextual() && node.path("children").isArray();
+    }
+
+    private int getStringIndex(String value) {
+        return stringIndexes.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private byte[] toByteArray() {
+        ByteSink output = new ByteSink();
+        output.writeInt(MAGIC);
+        output.writeInt(strings.size());
+        int nodesOffsetPosition = output.reserveInt();
+        int offsetsPosition = output.size();
+        for (int i = 0; i < strings.size(); i++) {
+            output.reserveInt();
+        }
+        for (int i = 0; i < strings.size(); i++) {
+            output.setInt(offsetsPosition + i * 4, output.size());
+            byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            output.writeVarLong(bytes.length);
+            output.writeBytes(bytes);
+        }
+        output.setInt(nodesOffsetPosition, output.size());
+        output.writeBytes(nodes.buffer, nodes.size());
+        return output.toByteArray();
+    }
+
+    /**
+     * Growable big endian byte buffer
+     */
+    private static class ByteSink {
+        private byte[] buffer = new byte[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            setInt(size, value);
+            size += 4;
+        }
+
+        int reserveInt() {
+            writeInt(0);
+            return size - 4;
+        }
+
+        void setInt(int position, int value) {
+            buffer[position] = (byte) (value >>> 24);
+            buffer[position + 1] = (byte) (value >>> 16);
+            buffer[position + 2] = (byte) (value >>> 8);
+            buffer[position + 3] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeBytes(bytes, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+}
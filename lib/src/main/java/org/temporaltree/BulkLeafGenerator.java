@@ -0,0 +1,45 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LeafGenerator that generates the leaves of a bin in one call, allowing
+ * lookups to be batched. TreeGenerator passes each bin's records as a batch
+ */
+public interface BulkLeafGenerator<T> extends LeafGenerator<T> {
+    /**
+     * Generates a leaf for each record, in record order
+     * 
+     * @param records
+     * @return leaves, entries may be null
+     */
+    List<ObjectNode> generateLeaves(List<T> records);
+
+    @Override
+    default ObjectNode generateLeaf(T record) {
+        return generateLeaves(Collections.singletonList(record)).get(0);
+    }
+
+    /**
+     * Adapts a single record LeafGenerator
+     * 
+     * @param leafGenerator
+     * @return
+     */
+    static <T> BulkLeafGenerator<T> of(LeafGenerator<T> leafGenerator) {
+        if (leafGenerator instanceof BulkLeafGenerator<T> bulkLeafGenerator) {
+            return bulkLeafGenerator;
+        }
+        return records -> {
+            List<ObjectNode> leaves = new ArrayList<>(records.size());
+            for (T record : records) {
+                leaves.add(leafGenerator.generateLeaf(record));
+            }
+            return leaves;
+        };
+    }
+}
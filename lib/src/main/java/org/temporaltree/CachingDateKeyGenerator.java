@@ -0,0 +1,38 @@
+package org.temporaltree;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * DateKeyGenerator decorator caching generated keys by epoch millisecond and
+ * zone, with least recently used eviction once maximumSize keys are held
+ */
+public class CachingDateKeyGenerator extends DateKeyGenerator {
+    private final DateKeyGenerator keyGenerator;
+    private final Cache<ZonedInstantKey, String> cache;
+
+    public CachingDateKeyGenerator(DateKeyGenerator keyGenerator, long maximumSize) {
+        this.keyGenerator = keyGenerator;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    @Override
+    public String generateKey(ZonedDateTime zonedDate) {
+        try {
+            return cache.get(ZonedInstantKey.of(zonedDate), () -> keyGenerator.generateKey(zonedDate));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate key", e.getCause());
+        }
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+}
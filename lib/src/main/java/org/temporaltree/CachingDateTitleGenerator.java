@@ -0,0 +1,38 @@
+package org.temporaltree;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * DateTitleGenerator decorator caching generated titles by epoch millisecond
+ * and zone, with least recently used eviction once maximumSize titles are held
+ */
+public class CachingDateTitleGenerator extends DateTitleGenerator {
+    private final DateTitleGenerator titleGenerator;
+    private final Cache<ZonedInstantKey, String> cache;
+
+    public CachingDateTitleGenerator(DateTitleGenerator titleGenerator, long maximumSize) {
+        this.titleGenerator = titleGenerator;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    @Override
+    public String generateTitle(ZonedDateTime zonedDate) {
+        try {
+            return cache.get(ZonedInstantKey.of(zonedDate), () -> titleGenerator.generateTitle(zonedDate));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate title", e.getCause());
+        }
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+}
@@ -2,6 +2,14 @@ package org.temporaltree;
 
 import java.time.Instant;
 
-public interface DateAccessor<T> {
+/**
+ * Accessor for the datetime of a record, adapted to an EpochMillisAccessor
+ */
+public interface DateAccessor<T> extends EpochMillisAccessor<T> {
     Instant getDateTime(T record);
+
+    @Override
+    default long getEpochMillis(T record) {
+        return getDateTime(record).toEpochMilli();
+    }
 }
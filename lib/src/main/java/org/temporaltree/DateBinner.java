@@ -2,13 +2,17 @@ package org.temporaltree;
 
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DateBinner utility class that will generate bins for a given time range and
@@ -18,6 +22,8 @@ import java.util.List;
  */
 public class DateBinner<T> {
 	private final List<TemporalBin<T>> bins;
+	private final TemporalTreeConfiguration configuration;
+	private final TreeMetricsListener metricsListener;
 
 	/**
 	 * Constructor that generates bins
@@ -31,38 +37,108 @@ public class DateBinner<T> {
 	 */
 	public DateBinner(ChronoUnit timeUnit, ChronoField timeField, Instant startDatetimeUtc, Instant endDatetimeUtc,
 			ZoneId zoneId) {
-		bins = new ArrayList<>();
-		ZonedDateTime startDate = ZonedDateTime.ofInstant(startDatetimeUtc, zoneId);
-		ZonedDateTime endDate = ZonedDateTime.ofInstant(endDatetimeUtc, zoneId);
-
-		ZonedDateTime currentTime = startDate.truncatedTo(timeUnit);
+		this(timeUnit, timeField, startDatetimeUtc, endDatetimeUtc, zoneId, null);
+	};
 
-		long endTime = endDate.toInstant().toEpochMilli();
+	/**
+	 * Constructor that takes its bin boundaries from a cache, boundaries are only
+	 * generated for the periods of the window the cache does not hold
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @param startDatetimeUtc
+	 * @param endDatetimeUtc
+	 * @param zoneId
+	 * @param boundaryCache    cache to consult, or null to always generate
+	 */
+	public DateBinner(ChronoUnit timeUnit, ChronoField timeField, Instant startDatetimeUtc, Instant endDatetimeUtc,
+			ZoneId zoneId, BinBoundaryCache boundaryCache) {
+		this(timeUnit, timeField, startDatetimeUtc, endDatetimeUtc, zoneId, boundaryCache, TreeMetricsListener.NOOP);
+	};
 
-		while (currentTime.toInstant().toEpochMilli() <= endTime) {
-			ZonedDateTime nextTime = getNext(timeUnit, timeField, currentTime);
+	/**
+	 * Constructor reporting boundary calculation time, and the bins created and
+	 * filled when records are placed, to a metrics listener
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @param startDatetimeUtc
+	 * @param endDatetimeUtc
+	 * @param zoneId
+	 * @param boundaryCache    cache to consult, or null to always generate
+	 * @param metricsListener
+	 */
+	public DateBinner(ChronoUnit timeUnit, ChronoField timeField, Instant startDatetimeUtc, Instant endDatetimeUtc,
+			ZoneId zoneId, BinBoundaryCache boundaryCache, TreeMetricsListener metricsListener) {
+		this.configuration = levelConfiguration(timeUnit, timeField);
+		this.metricsListener = metricsListener;
+		long boundaryStart = metricsListener != TreeMetricsListener.NOOP ? System.nanoTime() : 0;
+		ZonedDateTime startDate = getStart(timeUnit, ZonedDateTime.ofInstant(startDatetimeUtc, zoneId));
+		BinBoundaryCache.BinBoundaries boundaries = boundaryCache != null
+				? boundaryCache.getBoundaries(timeUnit, timeField, startDate, endDatetimeUtc)
+				: generateBoundaries(timeUnit, timeField, startDate, endDatetimeUtc.toEpochMilli());
+		bins = new ArrayList<>(boundaries.size());
+		for (int i = 0; i < boundaries.size(); i++) {
 			bins.add(new TemporalBin<T>(
 					timeUnit,
-					currentTime,
-					currentTime.getLong(timeField),
-					currentTime.toInstant().toEpochMilli(),
-					nextTime.toInstant().toEpochMilli()));
-			currentTime = nextTime;
+					boundaries.dates()[i],
+					boundaries.values()[i],
+					boundaries.boundaries()[i],
+					boundaries.boundaries()[i + 1]));
+		}
+		if (metricsListener != TreeMetricsListener.NOOP) {
+			metricsListener.phaseCompleted(TreeMetricsListener.Phase.BOUNDARY_CALCULATION,
+					System.nanoTime() - boundaryStart);
 		}
 	};
 
+	/**
+	 * Generates the boundaries of the bins from the bin starting at startDate up
+	 * to and including the bin containing endTime
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @param startDate start of the first bin
+	 * @param endTime   utc epoch millisecond
+	 * @return
+	 */
+	static BinBoundaryCache.BinBoundaries generateBoundaries(ChronoUnit timeUnit, ChronoField timeField,
+			ZonedDateTime startDate, long endTime) {
+		List<ZonedDateTime> dates = new ArrayList<>();
+		List<Long> boundaries = new ArrayList<>();
+		ZonedDateTime currentTime = startDate;
+		long currentTimeUtc = currentTime.toInstant().toEpochMilli();
+		boundaries.add(currentTimeUtc);
+
+		while (currentTimeUtc <= endTime) {
+			ZonedDateTime nextTime = getNext(timeUnit, timeField, currentTime);
+			dates.add(currentTime);
+			currentTimeUtc = nextTime.toInstant().toEpochMilli();
+			boundaries.add(currentTimeUtc);
+			currentTime = nextTime;
+		}
+
+		long[] values = new long[dates.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = dates.get(i).getLong(timeField);
+		}
+		return new BinBoundaryCache.BinBoundaries(dates.toArray(new ZonedDateTime[0]), values,
+				boundaries.stream().mapToLong(Long::longValue).toArray());
+	}
+
 	/**
 	 * Bins temporal records
 	 * 
 	 * @param records
-	 * @param dateAccessor
+	 * @param epochMillisAccessor
 	 * @return
 	 */
-	public void placeRecords(List<T> records, DateAccessor<T> dateAccessor) {
+	public void placeRecords(List<T> records, EpochMillisAccessor<T> epochMillisAccessor) {
+		long binningStart = metricsListener != TreeMetricsListener.NOOP ? System.nanoTime() : 0;
 		int maxBinIdx = bins.size() - 1;
 		int minBinIdx = 0;
 		for (T record : records) {
-			long datetimeUtc = dateAccessor.getDateTime(record).toEpochMilli();
+			long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
 
 			int binIdx = minBinIdx;
 			TemporalBin<T> bin = bins.get(binIdx);
@@ -79,6 +155,241 @@ public class DateBinner<T> {
 				bin.records().add(record);
 			}
 		}
+		if (metricsListener != TreeMetricsListener.NOOP) {
+			metricsListener.phaseCompleted(TreeMetricsListener.Phase.BINNING, System.nanoTime() - binningStart);
+			reportBins(bins.stream().mapToLong(bin -> bin.records().size()).toArray());
+		}
+	}
+
+	/**
+	 * Reports the bins created, the non-empty bins and the records placed
+	 */
+	private void reportBins(long[] counts) {
+		long nonEmpty = 0;
+		long placed = 0;
+		for (long count : counts) {
+			nonEmpty += count > 0 ? 1 : 0;
+			placed += count;
+		}
+		metricsListener.binsCreated(0, counts.length, nonEmpty);
+		metricsListener.recordsBinned(0, placed);
+	}
+
+	/**
+	 * Bins sorted records in a single pass without generating bins up front, each
+	 * non-empty bin is passed to the consumer once the records have moved past it
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @param binConsumer
+	 */
+	public static <T> void placeRecords(ChronoUnit timeUnit, ChronoField timeField, Iterator<T> records,
+			EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId, Consumer<TemporalBin<T>> binConsumer) {
+		TemporalBin<T> bin = null;
+		while (records.hasNext()) {
+			T record = records.next();
+			long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
+			if (bin != null && datetimeUtc < bin.startUtcMs()) {
+				throw new IllegalArgumentException(
+						"Records must be sorted: " + datetimeUtc + " precedes bin " + bin.startUtcMs());
+			}
+			if (bin == null || datetimeUtc >= bin.endUtcMs()) {
+				if (bin != null) {
+					binConsumer.accept(bin);
+				}
+				ZonedDateTime start = getStart(timeUnit,
+						ZonedDateTime.ofInstant(Instant.ofEpochMilli(datetimeUtc), zoneId));
+				long startUtcMs = start.toInstant().toEpochMilli();
+				bin = new TemporalBin<>(timeUnit, start, start.getLong(timeField), startUtcMs,
+						DateBoundaryCalculator.getNext(timeUnit, startUtcMs, zoneId));
+			}
+			bin.addRecord(record);
+		}
+		if (bin != null) {
+			binConsumer.accept(bin);
+		}
+	}
+
+	/**
+	 * Places sorted records by index range rather than copying them into the bins.
+	 * A node is returned for every bin, bins without records have an empty range
+	 * 
+	 * @param records
+	 * @param epochMillisAccessor
+	 * @return bins in order
+	 */
+	public List<TemporalBinNode> placeRecordRanges(List<T> records, EpochMillisAccessor<T> epochMillisAccessor) {
+		return placeRecordRanges(TimestampColumn.of(records, epochMillisAccessor));
+	}
+
+	/**
+	 * Places a sorted column of timestamps by index range, such as an
+	 * OffHeapTimestampColumn
+	 * 
+	 * @param timestamps
+	 * @return bins in order
+	 */
+	public List<TemporalBinNode> placeRecordRanges(TimestampColumn timestamps) {
+		long binningStart = metricsListener != TreeMetricsListener.NOOP ? System.nanoTime() : 0;
+		List<TemporalBinNode> ranges = new ArrayList<>(bins.size());
+		int size = timestamps.size();
+		int index = 0;
+		long datetimeUtc = size > 0 ? timestamps.getEpochMillis(0) : 0;
+		for (TemporalBin<T> bin : bins) {
+			// skip any records that fall before the bin
+			while (index < size && datetimeUtc < bin.startUtcMs()) {
+				index++;
+				datetimeUtc = index < size ? timestamps.getEpochMillis(index) : 0;
+			}
+			int fromIndex = index;
+			while (index < size && datetimeUtc < bin.endUtcMs()) {
+				index++;
+				datetimeUtc = index < size ? timestamps.getEpochMillis(index) : 0;
+			}
+			ranges.add(new TemporalBinNode(configuration, bin.date(), bin.startUtcMs(), bin.endUtcMs(), fromIndex,
+					index, List.of()));
+		}
+		if (metricsListener != TreeMetricsListener.NOOP) {
+			metricsListener.phaseCompleted(TreeMetricsListener.Phase.BINNING, System.nanoTime() - binningStart);
+			reportBins(ranges.stream().mapToLong(TemporalBinNode::count).toArray());
+		}
+		return ranges;
+	}
+
+	/**
+	 * Sparse alternative to constructing a DateBinner and placing records, only
+	 * the bins containing records are materialized. The extent of each bin is found
+	 * by galloping over the sorted records, and for units of a day or less in fixed
+	 * offset zones the bin boundaries are computed arithmetically
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @return the non-empty bins in order, keyed by their ISO start date
+	 */
+	public static <T> List<TemporalBinNode> placeNonEmptyRecordRanges(ChronoUnit timeUnit, ChronoField timeField,
+			List<T> records, EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId) {
+		return placeNonEmptyRecordRanges(levelConfiguration(timeUnit, timeField),
+				TimestampColumn.of(records, epochMillisAccessor), zoneId);
+	}
+
+	/**
+	 * Places sorted records into the non-empty bins of a level of a tree
+	 * configuration, the bins have no children
+	 * 
+	 * @param levelConfiguration
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @return the non-empty bins in order
+	 */
+	public static <T> List<TemporalBinNode> placeNonEmptyRecordRanges(TemporalTreeConfiguration levelConfiguration,
+			List<T> records, EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId) {
+		return placeNonEmptyRecordRanges(levelConfiguration, TimestampColumn.of(records, epochMillisAccessor),
+				zoneId);
+	}
+
+	/**
+	 * Column variant of placeNonEmptyRecordRanges
+	 * 
+	 * @param levelConfiguration
+	 * @param timestamps         sorted timestamps
+	 * @param zoneId
+	 * @return the non-empty bins in order
+	 */
+	public static List<TemporalBinNode> placeNonEmptyRecordRanges(TemporalTreeConfiguration levelConfiguration,
+			TimestampColumn timestamps, ZoneId zoneId) {
+		ChronoUnit timeUnit = levelConfiguration.timeUnit();
+		List<TemporalBinNode> ranges = new ArrayList<>();
+		ZoneRules rules = zoneId.getRules();
+		boolean fixedWidth = rules.isFixedOffset() && timeUnit.compareTo(ChronoUnit.DAYS) <= 0;
+		long width = fixedWidth ? DateBoundaryCalculator.getWidth(timeUnit) : 0;
+		long offsetMs = fixedWidth ? rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L : 0;
+
+		int size = timestamps.size();
+		int index = 0;
+		while (index < size) {
+			long datetimeUtc = timestamps.getEpochMillis(index);
+			ZonedDateTime start;
+			long startUtcMs;
+			long endUtcMs;
+			if (fixedWidth) {
+				startUtcMs = Math.floorDiv(datetimeUtc + offsetMs, width) * width - offsetMs;
+				endUtcMs = startUtcMs + width;
+				start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(startUtcMs), zoneId);
+			} else {
+				start = getStart(timeUnit, ZonedDateTime.ofInstant(Instant.ofEpochMilli(datetimeUtc), zoneId));
+				startUtcMs = start.toInstant().toEpochMilli();
+				endUtcMs = DateBoundaryCalculator.getNext(timeUnit, startUtcMs, zoneId);
+			}
+			int toIndex = findFirstAtOrAfter(timestamps, index + 1, size, endUtcMs);
+			ranges.add(new TemporalBinNode(levelConfiguration, start, startUtcMs, endUtcMs, index, toIndex,
+					List.of()));
+			index = toIndex;
+		}
+		return ranges;
+	}
+
+	/**
+	 * Creates a configuration for a single level keyed and titled by the ISO start
+	 * date of its bins, used for bins placed by time unit and field alone
+	 * 
+	 * @param timeUnit
+	 * @param timeField
+	 * @return
+	 */
+	static TemporalTreeConfiguration levelConfiguration(ChronoUnit timeUnit, ChronoField timeField) {
+		return new TemporalTreeConfiguration(timeUnit, timeField, new DateKeyGenerator() {
+			public String generateKey(ZonedDateTime zonedDateTime) {
+				return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(zonedDateTime);
+			}
+		}, new DateTitleGenerator() {
+			public String generateTitle(ZonedDateTime zonedDateTime) {
+				return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(zonedDateTime);
+			}
+		}, -1, null);
+	}
+
+	/**
+	 * Gallops forward from fromIndex and then binary searches to find the first
+	 * record with a timestamp at or after datetimeUtc
+	 * 
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param datetimeUtc
+	 * @return index of the first record at or after datetimeUtc, or toIndex
+	 */
+	static <T> int findFirstAtOrAfter(List<T> records, EpochMillisAccessor<T> epochMillisAccessor, int fromIndex,
+			int toIndex, long datetimeUtc) {
+		return findFirstAtOrAfter(TimestampColumn.of(records, epochMillisAccessor), fromIndex, toIndex, datetimeUtc);
+	}
+
+	static int findFirstAtOrAfter(TimestampColumn timestamps, int fromIndex, int toIndex, long datetimeUtc) {
+		int low = fromIndex;
+		int step = 1;
+		int high = fromIndex;
+		while (high < toIndex && timestamps.getEpochMillis(high) < datetimeUtc) {
+			low = high + 1;
+			high = (int) Math.min((long) toIndex, (long) high + step);
+			step <<= 1;
+		}
+		// the answer lies within [low, high]
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (timestamps.getEpochMillis(mid) < datetimeUtc) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
 	}
 
 	public List<TemporalBin<T>> getBins() {
@@ -86,7 +397,8 @@ public class DateBinner<T> {
 	}
 
 	/**
-	 * Returns the start of the next time boundary
+	 * Returns the start of the next time boundary, boundaries below a day are
+	 * split by the zone's offset transitions
 	 * 
 	 * @param {string}   dateTimeKey (options include: year, month or day)
 	 * @param {DateTime} zonedDatetime
@@ -95,49 +407,40 @@ public class DateBinner<T> {
 	 */
 	public static ZonedDateTime getNext(ChronoUnit timeUnit, ChronoField timeField, ZonedDateTime zonedDatetime) {
 		ZonedDateTime nextDate = null;
-		if (timeUnit == ChronoUnit.HOURS) {
-			nextDate = getNextHour(zonedDatetime);
-		} else if (timeUnit == ChronoUnit.MINUTES) {
-			nextDate = getNextMinute(zonedDatetime);
-		} else if (timeUnit == ChronoUnit.SECONDS) {
-			nextDate = getNextSecond(zonedDatetime);
-		} else if (timeUnit == ChronoUnit.MILLIS) {
-			nextDate = getNextMillisecond(zonedDatetime);
-		} else if (timeUnit == ChronoUnit.DAYS) {
-			ZonedDateTime initial = zonedDatetime.truncatedTo(timeUnit);
-			ZoneOffset initialOffset = initial.getOffset();
-			ZonedDateTime next = initial;
-			ZoneOffset nextOffset = next.getOffset();
-			while (next.getLong(timeField) == initial.getLong(timeField) && nextOffset.equals(initialOffset)) {
-				next = next.plus(1, timeUnit);
-				nextOffset = next.getOffset();
-			}
-			nextDate = next;
-		} else if (timeUnit == ChronoUnit.MONTHS) {
-			ZonedDateTime initial = zonedDatetime.with(TemporalAdjusters.firstDayOfMonth())
-					.truncatedTo(ChronoUnit.DAYS);
-			ZoneOffset initialOffset = initial.getOffset();
-			ZonedDateTime next = initial;
-			ZoneOffset nextOffset = next.getOffset();
-			while (next.get(timeField) == initial.get(timeField) && nextOffset.equals(initialOffset)) {
-				next = next.plus(1, timeUnit);
-				nextOffset = next.getOffset();
-			}
-			nextDate = next;
-		} else if (timeUnit == ChronoUnit.YEARS) {
-			ZonedDateTime initial = zonedDatetime.with(TemporalAdjusters.firstDayOfYear()).truncatedTo(ChronoUnit.DAYS);
-			ZoneOffset initialOffset = initial.getOffset();
-			ZonedDateTime next = initial;
-			ZoneOffset nextOffset = next.getOffset();
-			while (next.get(timeField) == initial.get(timeField) && nextOffset.equals(initialOffset)) {
-				next = next.plus(1, timeUnit);
-				nextOffset = next.getOffset();
-			}
-			nextDate = next;
+		if (timeUnit == ChronoUnit.HOURS || timeUnit == ChronoUnit.MINUTES || timeUnit == ChronoUnit.SECONDS
+				|| timeUnit == ChronoUnit.MILLIS || timeUnit == ChronoUnit.DAYS || timeUnit == ChronoUnit.MONTHS
+				|| timeUnit == ChronoUnit.YEARS) {
+			nextDate = DateBoundaryCalculator.getNext(timeUnit, zonedDatetime);
 		}
 		return nextDate;
 	};
 
+	/**
+	 * Returns the start of the bin containing a ZonedDateTime. Bins below a day are
+	 * split by offset transitions so the start is moved forward to a transition
+	 * that occurs between the truncated time and the ZonedDateTime
+	 * 
+	 * @param timeUnit
+	 * @param zonedDatetime
+	 * @return start of the bin
+	 */
+	public static ZonedDateTime getStart(ChronoUnit timeUnit, ZonedDateTime zonedDatetime) {
+		if (timeUnit == ChronoUnit.YEARS) {
+			return zonedDatetime.with(TemporalAdjusters.firstDayOfYear()).truncatedTo(ChronoUnit.DAYS);
+		} else if (timeUnit == ChronoUnit.MONTHS) {
+			return zonedDatetime.with(TemporalAdjusters.firstDayOfMonth()).truncatedTo(ChronoUnit.DAYS);
+		} else if (timeUnit == ChronoUnit.DAYS) {
+			return zonedDatetime.truncatedTo(ChronoUnit.DAYS);
+		}
+		ZonedDateTime start = zonedDatetime.truncatedTo(timeUnit);
+		ZoneOffsetTransition transition = zonedDatetime.getZone().getRules()
+				.previousTransition(zonedDatetime.toInstant().plusNanos(1));
+		if (transition != null && transition.getInstant().isAfter(start.toInstant())) {
+			start = ZonedDateTime.ofInstant(transition.getInstant(), zonedDatetime.getZone());
+		}
+		return start;
+	};
+
 	/**
 	 * Returns the start of the next year for a ZoneDateTime
 	 * 
@@ -175,15 +478,7 @@ public class DateBinner<T> {
 	 * @returns {DateTime} zonedDatetime at the start of the next hour
 	 */
 	public static ZonedDateTime getNextHour(ZonedDateTime zonedDatetime) {
-		int initialHour = zonedDatetime.getHour();
-		ZoneOffset initialOffset = zonedDatetime.getOffset();
-		ZonedDateTime nextHour = zonedDatetime;
-		ZoneOffset nextOffset = nextHour.getOffset();
-		while (nextHour.getHour() == initialHour && nextOffset.equals(initialOffset)) {
-			nextHour = nextHour.plus(15, ChronoUnit.MINUTES);
-			nextOffset = nextHour.getOffset();
-		}
-		return nextHour;
+		return DateBoundaryCalculator.getNext(ChronoUnit.HOURS, zonedDatetime);
 	};
 
 	/**
@@ -193,15 +488,7 @@ public class DateBinner<T> {
 	 * @returns {DateTime} zonedDatetime at the start of the next hour
 	 */
 	public static ZonedDateTime getNextMinute(ZonedDateTime zonedDatetime) {
-		ZonedDateTime nextMinute = zonedDatetime.truncatedTo(ChronoUnit.MINUTES);
-		int initialMinute = zonedDatetime.getMinute();
-		ZoneOffset initialOffset = zonedDatetime.getOffset();
-		ZoneOffset nextOffset = nextMinute.getOffset();
-		while (nextMinute.getMinute() == initialMinute && nextOffset.equals(initialOffset)) {
-			nextMinute = nextMinute.plus(1, ChronoUnit.MINUTES);
-			nextOffset = nextMinute.getOffset();
-		}
-		return nextMinute;
+		return DateBoundaryCalculator.getNext(ChronoUnit.MINUTES, zonedDatetime);
 	};
 
 	/**
@@ -211,15 +498,7 @@ public class DateBinner<T> {
 	 * @returns {DateTime} zonedDatetime at the start of the next second
 	 */
 	public static ZonedDateTime getNextSecond(ZonedDateTime zonedDatetime) {
-		ZonedDateTime nextSecond = zonedDatetime.truncatedTo(ChronoUnit.SECONDS);
-		int initialSecond = zonedDatetime.getSecond();
-		ZoneOffset initialOffset = zonedDatetime.getOffset();
-		ZoneOffset nextOffset = nextSecond.getOffset();
-		while (nextSecond.getSecond() == initialSecond && nextOffset.equals(initialOffset)) {
-			nextSecond = nextSecond.plus(1, ChronoUnit.SECONDS);
-			nextOffset = nextSecond.getOffset();
-		}
-		return nextSecond;
+		return DateBoundaryCalculator.getNext(ChronoUnit.SECONDS, zonedDatetime);
 	};
 
 	/**
@@ -229,16 +508,6 @@ public class DateBinner<T> {
 	 * @returns {DateTime} zonedDatetime at the start of the next millisecond
 	 */
 	public static ZonedDateTime getNextMillisecond(ZonedDateTime zonedDatetime) {
-		ZonedDateTime nextMillisecond = zonedDatetime;
-		int initialMillisecond = zonedDatetime.get(ChronoField.MILLI_OF_SECOND);
-		ZoneOffset initialOffset = zonedDatetime.getOffset();
-		ZoneOffset nextOffset = nextMillisecond.getOffset();
-		while (nextMillisecond.get(ChronoField.MILLI_OF_SECOND) == initialMillisecond
-				&& nextOffset.equals(initialOffset)) {
-			nextMillisecond = nextMillisecond.plus(1, ChronoUnit.MILLIS);
-			nextOffset = nextMillisecond.getOffset();
-		}
-		return nextMillisecond;
+		return DateBoundaryCalculator.getNext(ChronoUnit.MILLIS, zonedDatetime);
 	};
-
 }
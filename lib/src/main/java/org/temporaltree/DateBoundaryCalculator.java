@@ -0,0 +1,108 @@
+package org.temporaltree;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * DateBoundaryCalculator jumps directly to the next bin boundary rather than
+ * stepping through time. Boundaries below a day are the earlier of the next
+ * local unit boundary and the next offset transition of the zone, boundaries
+ * of a day or more are the start of the next local day, month or year
+ */
+public class DateBoundaryCalculator {
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+	private DateBoundaryCalculator() {
+	}
+
+	/**
+	 * Returns the utc epoch millisecond of the next boundary after a time
+	 * 
+	 * @param timeUnit
+	 * @param epochMillis
+	 * @param zoneId
+	 * @return utc epoch millisecond of the next boundary
+	 */
+	public static long getNext(ChronoUnit timeUnit, long epochMillis, ZoneId zoneId) {
+		ZoneRules rules = zoneId.getRules();
+		if (rules.isFixedOffset()) {
+			long offsetMs = rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+			if (timeUnit.compareTo(ChronoUnit.DAYS) <= 0) {
+				long width = getWidth(timeUnit);
+				return Math.floorDiv(epochMillis + offsetMs, width) * width + width - offsetMs;
+			}
+			return getNextDate(timeUnit, Math.floorDiv(epochMillis + offsetMs, MILLIS_PER_DAY), zoneId);
+		}
+
+		Instant instant = Instant.ofEpochMilli(epochMillis);
+		long offsetMs = rules.getOffset(instant).getTotalSeconds() * 1000L;
+		if (timeUnit.compareTo(ChronoUnit.DAYS) >= 0) {
+			return getNextDate(timeUnit, Math.floorDiv(epochMillis + offsetMs, MILLIS_PER_DAY), zoneId);
+		}
+		long width = getWidth(timeUnit);
+		long next = Math.floorDiv(epochMillis + offsetMs, width) * width + width - offsetMs;
+		ZoneOffsetTransition transition = rules.nextTransition(instant);
+		if (transition != null) {
+			long transitionMs = transition.getInstant().toEpochMilli();
+			if (transitionMs < next) {
+				next = transitionMs;
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Returns the start of the next boundary after a ZonedDateTime
+	 * 
+	 * @param timeUnit
+	 * @param zonedDatetime
+	 * @return ZonedDateTime at the start of the next boundary
+	 */
+	public static ZonedDateTime getNext(ChronoUnit timeUnit, ZonedDateTime zonedDatetime) {
+		ZoneId zoneId = zonedDatetime.getZone();
+		if (timeUnit.compareTo(ChronoUnit.DAYS) >= 0) {
+			return ZonedDateTime.ofInstant(
+					Instant.ofEpochMilli(getNextDate(timeUnit, zonedDatetime.toLocalDate().toEpochDay(), zoneId)),
+					zoneId);
+		}
+		return ZonedDateTime.ofInstant(
+				Instant.ofEpochMilli(getNext(timeUnit, zonedDatetime.toInstant().toEpochMilli(), zoneId)), zoneId);
+	}
+
+	/**
+	 * Returns the width in milliseconds of a unit, estimated for units longer than
+	 * a day. Units below a millisecond can not bin epoch milliseconds
+	 * 
+	 * @param timeUnit
+	 * @return
+	 */
+	static long getWidth(ChronoUnit timeUnit) {
+		if (timeUnit.compareTo(ChronoUnit.MILLIS) < 0) {
+			throw new IllegalArgumentException("Unsupported time unit: " + timeUnit);
+		}
+		return timeUnit.getDuration().toMillis();
+	}
+
+	/**
+	 * Returns the start of the day, month or year following a local epoch day
+	 */
+	private static long getNextDate(ChronoUnit timeUnit, long localEpochDay, ZoneId zoneId) {
+		LocalDate date = LocalDate.ofEpochDay(localEpochDay);
+		LocalDate next;
+		if (timeUnit == ChronoUnit.DAYS) {
+			next = date.plusDays(1);
+		} else if (timeUnit == ChronoUnit.MONTHS) {
+			next = date.withDayOfMonth(1).plusMonths(1);
+		} else if (timeUnit == ChronoUnit.YEARS) {
+			next = date.withDayOfYear(1).plusYears(1);
+		} else {
+			throw new IllegalArgumentException("Unsupported time unit: " + timeUnit);
+		}
+		return next.atStartOfDay(zoneId).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,106 @@
+package org.temporaltree;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hand rolled formatters for the fixed patterns of the default key generators,
+ * producing the same output as DateTimeFormatter for years 1 to 9999. The zone
+ * text is looked up once per zone and offset
+ */
+public class DateKeyFormats {
+    private static final DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter hourFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH z");
+    private static final DateTimeFormatter minuteFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm z");
+    private static final DateTimeFormatter zoneTextFormatter = DateTimeFormatter.ofPattern("z");
+    private static final Map<ZoneTextKey, String> zoneTexts = new ConcurrentHashMap<>();
+
+    private record ZoneTextKey(ZoneId zoneId, ZoneOffset offset, ZoneOffset standardOffset) {
+    }
+
+    private DateKeyFormats() {
+    }
+
+    /**
+     * Formats yyyy-MM-dd
+     * 
+     * @param zonedDate
+     * @return
+     */
+    public static String formatDay(ZonedDateTime zonedDate) {
+        if (!isSupportedYear(zonedDate)) {
+            return dayFormatter.format(zonedDate);
+        }
+        char[] chars = new char[10];
+        appendDate(chars, zonedDate);
+        return new String(chars);
+    }
+
+    /**
+     * Formats yyyy-MM-dd-HH z
+     * 
+     * @param zonedDate
+     * @return
+     */
+    public static String formatHour(ZonedDateTime zonedDate) {
+        if (!isSupportedYear(zonedDate)) {
+            return hourFormatter.format(zonedDate);
+        }
+        char[] chars = new char[13];
+        appendDate(chars, zonedDate);
+        chars[10] = '-';
+        appendTwoDigits(chars, 11, zonedDate.getHour());
+        return new String(chars) + ' ' + getZoneText(zonedDate);
+    }
+
+    /**
+     * Formats yyyy-MM-dd-HH-mm z
+     * 
+     * @param zonedDate
+     * @return
+     */
+    public static String formatMinute(ZonedDateTime zonedDate) {
+        if (!isSupportedYear(zonedDate)) {
+            return minuteFormatter.format(zonedDate);
+        }
+        char[] chars = new char[16];
+        appendDate(chars, zonedDate);
+        chars[10] = '-';
+        appendTwoDigits(chars, 11, zonedDate.getHour());
+        chars[13] = '-';
+        appendTwoDigits(chars, 14, zonedDate.getMinute());
+        return new String(chars) + ' ' + getZoneText(zonedDate);
+    }
+
+    private static boolean isSupportedYear(ZonedDateTime zonedDate) {
+        int year = zonedDate.getYear();
+        return year >= 1 && year <= 9999;
+    }
+
+    private static void appendDate(char[] chars, ZonedDateTime zonedDate) {
+        int year = zonedDate.getYear();
+        appendTwoDigits(chars, 0, year / 100);
+        appendTwoDigits(chars, 2, year % 100);
+        chars[4] = '-';
+        appendTwoDigits(chars, 5, zonedDate.getMonthValue());
+        chars[7] = '-';
+        appendTwoDigits(chars, 8, zonedDate.getDayOfMonth());
+    }
+
+    private static void appendTwoDigits(char[] chars, int index, int value) {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index + 1] = (char) ('0' + value % 10);
+    }
+
+    private static String getZoneText(ZonedDateTime zonedDate) {
+        ZoneId zoneId = zonedDate.getZone();
+        ZoneOffset offset = zonedDate.getOffset();
+        ZoneTextKey key = new ZoneTextKey(zoneId, offset,
+                zoneId.getRules().getStandardOffset(zonedDate.toInstant()));
+        return zoneTexts.computeIfAbsent(key, k -> zoneTextFormatter.format(zonedDate));
+    }
+}
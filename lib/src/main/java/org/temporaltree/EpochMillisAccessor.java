@@ -0,0 +1,10 @@
+package org.temporaltree;
+
+/**
+ * Accessor for the utc epoch millisecond timestamp of a record. Binning only
+ * needs the primitive value, so implementing this directly avoids allocating
+ * an Instant per record
+ */
+public interface EpochMillisAccessor<T> {
+    long getEpochMillis(T record);
+}
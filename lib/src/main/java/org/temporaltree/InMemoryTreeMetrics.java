@@ -0,0 +1,135 @@
+package org.temporaltree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TreeMetricsListener keeping every reported value in memory, phase timings
+ * are kept as histograms of the per build samples. Intended for tests and
+ * diagnostics rather than long running processes
+ */
+public class InMemoryTreeMetrics implements TreeMetricsListener {
+    private final Map<Phase, List<Long>> phaseSamples = new EnumMap<>(Phase.class);
+    private final Map<Integer, LongAdder> binsCreated = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> nonEmptyBins = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> recordsBinned = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> breakDowns = new ConcurrentHashMap<>();
+    private final LongAdder leaves = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public InMemoryTreeMetrics() {
+        for (Phase phase : Phase.values()) {
+            phaseSamples.put(phase, Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+
+    @Override
+    public void phaseCompleted(Phase phase, long nanos) {
+        phaseSamples.get(phase).add(nanos);
+    }
+
+    @Override
+    public void binsCreated(int level, long created, long nonEmpty) {
+        binsCreated.computeIfAbsent(level, l -> new LongAdder()).add(created);
+        nonEmptyBins.computeIfAbsent(level, l -> new LongAdder()).add(nonEmpty);
+    }
+
+    @Override
+    public void recordsBinned(int level, long records) {
+        recordsBinned.computeIfAbsent(level, l -> new LongAdder()).add(records);
+    }
+
+    @Override
+    public void breakDowns(int level, long count) {
+        breakDowns.computeIfAbsent(level, l -> new LongAdder()).add(count);
+    }
+
+    @Override
+    public void leavesGenerated(long count) {
+        leaves.add(count);
+    }
+
+    @Override
+    public void nodesProduced(long count) {
+        nodes.add(count);
+    }
+
+    @Override
+    public void bytesWritten(long count) {
+        bytes.add(count);
+    }
+
+    /**
+     * Returns the number of samples reported for a phase
+     * 
+     * @param phase
+     * @return
+     */
+    public int getCount(Phase phase) {
+        return phaseSamples.get(phase).size();
+    }
+
+    public long getTotalNanos(Phase phase) {
+        synchronized (phaseSamples.get(phase)) {
+            return phaseSamples.get(phase).stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    /**
+     * Returns the nearest rank percentile of the samples of a phase
+     * 
+     * @param phase
+     * @param percentile between 0 and 100
+     * @return the percentile in nanoseconds, or 0 without samples
+     */
+    public long getPercentileNanos(Phase phase, double percentile) {
+        long[] samples;
+        synchronized (phaseSamples.get(phase)) {
+            samples = phaseSamples.get(phase).stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        if (samples.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * samples.length);
+        return samples[Math.max(0, Math.min(samples.length - 1, rank - 1))];
+    }
+
+    public long getBinsCreated(int level) {
+        return sum(binsCreated, level);
+    }
+
+    public long getNonEmptyBins(int level) {
+        return sum(nonEmptyBins, level);
+    }
+
+    public long getRecordsBinned(int level) {
+        return sum(recordsBinned, level);
+    }
+
+    public long getBreakDowns(int level) {
+        return sum(breakDowns, level);
+    }
+
+    public long getLeaves() {
+        return leaves.sum();
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytes.sum();
+    }
+
+    private static long sum(Map<Integer, LongAdder> counters, int level) {
+        LongAdder counter = counters.get(level);
+        return counter != null ? counter.sum() : 0;
+    }
+}
@@ -0,0 +1,136 @@
+package org.temporaltree;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IncrementalTemporalTree keeps the bins of a temporal tree and accepts
+ * batches of records appended in time order. Only the trailing bins that the
+ * new records fall into are updated, a trailing bin that reaches its
+ * breakLimit is broken down over its own records, and the remaining records
+ * are binned into new bins. Rebuild cost scales with the appended batch rather
+ * than the history
+ * 
+ * @param <T>
+ */
+public class IncrementalTemporalTree<T> {
+    private final List<T> records = new ArrayList<>();
+    private final List<TemporalBinNode> bins = new ArrayList<>();
+    private final EpochMillisAccessor<T> epochMillisAccessor;
+    private final ZoneId zoneId;
+    private final TemporalTreeConfiguration configuration;
+
+    /**
+     * Constructor
+     * 
+     * @param epochMillisAccessor
+     * @param zoneId
+     * @param treeConfiguration   configuration, or null for the default
+     */
+    public IncrementalTemporalTree(EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) {
+        this.epochMillisAccessor = epochMillisAccessor;
+        this.zoneId = zoneId;
+        this.configuration = treeConfiguration != null ? treeConfiguration
+                : TreeGenerator.getDefaultTreeConfiguration();
+    }
+
+    /**
+     * Appends a batch of sorted records, which must not be earlier than the
+     * records already appended
+     * 
+     * @param batch
+     * @return the bins that were created or replaced, parents before children
+     */
+    public List<TemporalBinNode> append(List<T> batch) {
+        List<TemporalBinNode> changed = new ArrayList<>();
+        if (batch.isEmpty()) {
+            return changed;
+        }
+        int fromIndex = records.size();
+        records.addAll(batch);
+        extend(bins, configuration, fromIndex, records.size(), changed);
+        return changed;
+    }
+
+    /**
+     * Returns the records appended so far, the bins index into this list
+     * 
+     * @return
+     */
+    public List<T> getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the top level bins
+     * 
+     * @return
+     */
+    public List<TemporalBinNode> getBins() {
+        return bins;
+    }
+
+    /**
+     * Extends a level of bins with the records in [fromIndex, toIndex). Records
+     * before the end of the trailing bin grow it, the rest are binned into new
+     * bins appended to the level
+     */
+    private void extend(List<TemporalBinNode> levelBins, TemporalTreeConfiguration levelConfiguration,
+            int fromIndex, int toIndex, List<TemporalBinNode> changed) {
+        int index = fromIndex;
+        if (!levelBins.isEmpty()) {
+            TemporalBinNode last = levelBins.get(levelBins.size() - 1);
+            index = DateBinner.findFirstAtOrAfter(records, epochMillisAccessor, fromIndex, toIndex,
+                    last.endUtcMs());
+            if (index > fromIndex) {
+                List<TemporalBinNode> children = last.children();
+                int count = index - last.fromIndex();
+                boolean breaks = levelConfiguration.breakLimit() != -1
+                        && levelConfiguration.breakConfiguration() != null
+                        && count >= levelConfiguration.breakLimit();
+                TemporalBinNode grown;
+                if (!breaks) {
+                    grown = new TemporalBinNode(levelConfiguration, last.date(), last.startUtcMs(), last.endUtcMs(),
+                            last.fromIndex(), index, children);
+                    levelBins.set(levelBins.size() - 1, grown);
+                    changed.add(grown);
+                } else if (children.isEmpty()) {
+                    // the trailing bin crossed its break limit, so break it down over all of its records
+                    children = new ArrayList<>(TemporalTreeBinner.bin(records, last.fromIndex(), index,
+                            epochMillisAccessor, zoneId, levelConfiguration.breakConfiguration()));
+                    grown = new TemporalBinNode(levelConfiguration, last.date(), last.startUtcMs(), last.endUtcMs(),
+                            last.fromIndex(), index, children);
+                    levelBins.set(levelBins.size() - 1, grown);
+                    changed.add(grown);
+                    for (TemporalBinNode child : children) {
+                        collect(child, changed);
+                    }
+                } else {
+                    grown = new TemporalBinNode(levelConfiguration, last.date(), last.startUtcMs(), last.endUtcMs(),
+                            last.fromIndex(), index, children);
+                    levelBins.set(levelBins.size() - 1, grown);
+                    changed.add(grown);
+                    extend(children, levelConfiguration.breakConfiguration(), fromIndex, index, changed);
+                }
+            }
+        }
+        if (index < toIndex) {
+            List<TemporalBinNode> added = TemporalTreeBinner.bin(records, index, toIndex, epochMillisAccessor, zoneId,
+                    levelConfiguration);
+            // the binner returns mutable child lists, so later appends can extend them
+            for (TemporalBinNode bin : added) {
+                levelBins.add(bin);
+                collect(bin, changed);
+            }
+        }
+    }
+
+    private static void collect(TemporalBinNode bin, List<TemporalBinNode> changed) {
+        changed.add(bin);
+        for (TemporalBinNode child : bin.children()) {
+            collect(child, changed);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * IndexTree pages a list of records with a configurable fan-out and leaf chunk
+ * size. Node ranges are computed from their indexes, so nodes can be expanded
+ * lazily by key, iterated or written to a JsonGenerator while holding only the
+ * current path of the tree, and leaves are generated one chunk at a time
+ * 
+ * @param <T>
+ */
+public class IndexTree<T> {
+    // two ints and a separator
+    private static final int KEY_LENGTH = 23;
+
+    private final List<T> records;
+    private final IndexTreeConfiguration configuration;
+
+    public IndexTree(List<T> records, IndexTreeConfiguration configuration) {
+        this.records = TreeUtils.randomAccess(records);
+        this.configuration = configuration;
+    }
+
+    /**
+     * Returns the root node covering every record
+     * 
+     * @return
+     */
+    public LazyTreeNode getRoot() {
+        return createNode(0, records.size(), new char[KEY_LENGTH]);
+    }
+
+    /**
+     * Returns the child nodes of a node, a leaf chunk has no child nodes
+     * 
+     * @param key
+     * @return
+     */
+    public List<LazyTreeNode> getChildren(String key) {
+        return getChildren(parseKey(key));
+    }
+
+    /**
+     * Returns the child nodes of a node, a leaf chunk has no child nodes
+     * 
+     * @param node
+     * @return
+     */
+    public List<LazyTreeNode> getChildren(LazyTreeNode node) {
+        List<LazyTreeNode> children = new ArrayList<>();
+        if (!node.leafParent()) {
+            char[] buffer = new char[KEY_LENGTH];
+            long span = getChildSpan(node.count());
+            for (long i = node.fromIndex(); i < node.toIndex(); i += span) {
+                children.add(createNode((int) i, (int) Math.min(node.toIndex(), i + span), buffer));
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Generates the leaves of a leaf chunk
+     * 
+     * @param key
+     * @param leafGenerator
+     * @return
+     */
+    public ArrayNode getLeaves(String key, LeafGenerator<T> leafGenerator) {
+        return getLeaves(parseKey(key), leafGenerator);
+    }
+
+    /**
+     * Generates the leaves of a leaf chunk
+     * 
+     * @param node
+     * @param leafGenerator
+     * @return
+     */
+    public ArrayNode getLeaves(LazyTreeNode node, LeafGenerator<T> leafGenerator) {
+        ArrayNode leaves = TreeUtils.OBJECT_MAPPER.createArrayNode();
+        if (node.leafParent()) {
+            addLeaves(leaves, node.fromIndex(), node.toIndex(), BulkLeafGenerator.of(leafGenerator));
+        }
+        return leaves;
+    }
+
+    private void addLeaves(ArrayNode leaves, int fromIndex, int toIndex, BulkLeafGenerator<T> leafGenerator) {
+        if (fromIndex < toIndex) {
+            for (ObjectNode leaf : leafGenerator.generateLeaves(records.subList(fromIndex, toIndex))) {
+                if (leaf != null) {
+                    leaves.add(leaf);
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates the nodes of the tree depth first, parents before their children.
+     * The iterator holds one cursor per level of the current path
+     * 
+     * @return
+     */
+    public Iterator<LazyTreeNode> iterator() {
+        return new NodeIterator();
+    }
+
+    /**
+     * Generates the whole tree with its leaves
+     * 
+     * @param leafGenerator
+     * @return
+     */
+    public ObjectNode generate(LeafGenerator<T> leafGenerator) {
+        return generate(0, records.size(), leafGenerator);
+    }
+
+    /**
+     * Generates the subtree of the range [fromIndex, toIndex) with its leaves
+     */
+    ObjectNode generate(int fromIndex, int toIndex, LeafGenerator<T> leafGenerator) {
+        return generate(fromIndex, toIndex, BulkLeafGenerator.of(leafGenerator), new char[KEY_LENGTH]);
+    }
+
+    private ObjectNode generate(int fromIndex, int toIndex, BulkLeafGenerator<T> leafGenerator, char[] key) {
+        String nodeKey = new String(key, 0, formatKey(key, fromIndex, toIndex));
+        ObjectNode objectNode = TreeUtils.createNodeWithChildren(nodeKey, nodeKey);
+        ArrayNode children = (ArrayNode) objectNode.get("children");
+        if (toIndex - fromIndex <= configuration.chunkSize()) {
+            addLeaves(children, fromIndex, toIndex, leafGenerator);
+        } else {
+            long span = getChildSpan(toIndex - fromIndex);
+            for (long i = fromIndex; i < toIndex; i += span) {
+                children.add(generate((int) i, (int) Math.min(toIndex, i + span), leafGenerator, key));
+            }
+        }
+        return objectNode;
+    }
+
+    /**
+     * Writes the whole tree with its leaves directly to the JsonGenerator, keys
+     * are formatted into a reused buffer rather than a String per node
+     * 
+     * @param generator
+     * @param leafWriter
+     * @throws IOException
+     */
+    public void write(JsonGenerator generator, LeafWriter<T> leafWriter) throws IOException {
+        write(generator, leafWriter, 0, records.size());
+    }
+
+    /**
+     * Writes the subtree of the range [fromIndex, toIndex) with its leaves
+     */
+    void write(JsonGenerator generator, LeafWriter<T> leafWriter, int fromIndex, int toIndex) throws IOException {
+        write(generator, leafWriter, fromIndex, toIndex, new char[KEY_LENGTH]);
+    }
+
+    private void write(JsonGenerator generator, LeafWriter<T> leafWriter, int fromIndex, int toIndex, char[] key)
+            throws IOException {
+        int length = formatKey(key, fromIndex, toIndex);
+        generator.writeStartObject();
+        generator.writeFieldName("key");
+        generator.writeString(key, 0, length);
+        generator.writeFieldName("title");
+        generator.writeString(key, 0, length);
+        generator.writeArrayFieldStart("children");
+        if (toIndex - fromIndex <= configuration.chunkSize()) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                leafWriter.writeLeaf(generator, records.get(i));
+            }
+        } else {
+            long span = getChildSpan(toIndex - fromIndex);
+            for (long i = fromIndex; i < toIndex; i += span) {
+                write(generator, leafWriter, (int) i, (int) Math.min(toIndex, i + span), key);
+            }
+        }
+        TreeUtils.writeNodeEnd(generator);
+    }
+
+    /**
+     * Counts the nodes of the subtree of a range of count records, leaf chunks
+     * included, from their ranges
+     * 
+     * @param count
+     * @return
+     */
+    long countNodes(int count) {
+        if (count <= configuration.chunkSize()) {
+            return 1;
+        }
+        long span = getChildSpan(count);
+        // every child but the last is a full span
+        long fullChildren = (count - 1) / span;
+        return 1 + fullChildren * countNodes((int) span) + countNodes((int) (count - fullChildren * span));
+    }
+
+    /**
+     * Returns the number of records under each child of a node, the smallest
+     * chunkSize times a power of fanOut that splits the node into at most fanOut
+     * children, or with powerSpans the smallest power of fanOut splitting it into
+     * at most fanOut + 1 children
+     */
+    private long getChildSpan(int count) {
+        long span;
+        if (configuration.powerSpans()) {
+            span = configuration.fanOut();
+            while ((count - 1) / span > configuration.fanOut()) {
+                span *= configuration.fanOut();
+            }
+        } else {
+            span = configuration.chunkSize();
+            while (span * configuration.fanOut() < count) {
+                span *= configuration.fanOut();
+            }
+        }
+        return span;
+    }
+
+    /**
+     * Formats the key of the range [fromIndex, toIndex), the inclusive index range
+     * "fromIndex-lastIndex", into the buffer
+     * 
+     * @return length of the key
+     */
+    private static int formatKey(char[] buffer, int fromIndex, int toIndex) {
+        int length = formatInt(buffer, 0, fromIndex);
+        buffer[length++] = '-';
+        return formatInt(buffer, length, Math.max(toIndex - 1, 0));
+    }
+
+    private static int formatInt(char[] buffer, int offset, int value) {
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        int end = offset + digits;
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Creates the node of a range, formatting its key into the buffer
+     */
+    private LazyTreeNode createNode(int fromIndex, int toIndex, char[] buffer) {
+        String key = new String(buffer, 0, formatKey(buffer, fromIndex, toIndex));
+        return new LazyTreeNode(key, key, fromIndex, toIndex, null, null,
+                toIndex - fromIndex <= configuration.chunkSize());
+    }
+
+    private LazyTreeNode parseKey(String key) {
+        int separator = key.indexOf('-');
+        try {
+            int startIdx = Integer.parseInt(key.substring(0, separator));
+            int endIdx = Integer.parseInt(key.substring(separator + 1));
+            if (records.isEmpty() && startIdx == 0 && endIdx == 0) {
+                return getRoot();
+            }
+            if (startIdx < 0 || endIdx >= records.size() || startIdx > endIdx) {
+                throw new IllegalArgumentException("Node key out of range: " + key);
+            }
+            return createNode(startIdx, endIdx + 1, new char[KEY_LENGTH]);
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid node key: " + key, e);
+        }
+    }
+
+    /**
+     * Depth first iterator keeping a cursor over the children of each node on the
+     * current path
+     */
+    private class NodeIterator implements Iterator<LazyTreeNode> {
+        private final Deque<long[]> cursors = new ArrayDeque<>();
+        private final char[] buffer = new char[KEY_LENGTH];
+        private LazyTreeNode next = getRoot();
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LazyTreeNode next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LazyTreeNode node = next;
+            if (!node.leafParent()) {
+                // cursor of the next child start, the end and the child span
+                cursors.push(new long[] { node.fromIndex(), node.toIndex(), getChildSpan(node.count()) });
+            }
+            next = null;
+            while (next == null && !cursors.isEmpty()) {
+                long[] cursor = cursors.peek();
+                if (cursor[0] >= cursor[1]) {
+                    cursors.pop();
+                } else {
+                    next = createNode((int) cursor[0], (int) Math.min(cursor[1], cursor[0] + cursor[2]), buffer);
+                    cursor[0] += cursor[2];
+                }
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.temporaltree;
+
+/**
+ * Configuration for index trees. Ranges of at most chunkSize records are leaf
+ * chunks, larger ranges are split into at most fanOut children whose sizes are
+ * chunkSize times a power of fanOut, so node ranges align across the tree.
+ * With powerSpans children instead span the smallest power of fanOut, at least
+ * fanOut, that splits a range into at most fanOut + 1 children
+ */
+public record IndexTreeConfiguration(int fanOut, int chunkSize, boolean powerSpans) {
+
+    /**
+     * The layout of TreeGenerator.generateIndexTree and LazyIndexTree, chunks of
+     * up to 101 records under nodes spanning powers of ten
+     */
+    public static final IndexTreeConfiguration POWERS_OF_TEN = new IndexTreeConfiguration(10, 101, true);
+
+    public IndexTreeConfiguration {
+        if (fanOut < 2 || chunkSize < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid index tree configuration, fanOut: " + fanOut + ", chunkSize: " + chunkSize);
+        }
+    }
+
+    public IndexTreeConfiguration(int fanOut, int chunkSize) {
+        this(fanOut, chunkSize, false);
+    }
+}
@@ -0,0 +1,112 @@
+package org.temporaltree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Reorders a stream of records arriving up to a lateness window out of order.
+ * Records are held until the latest timestamp seen is more than the window
+ * past them, and are then released in timestamp order, for example to be
+ * appended to an IncrementalTemporalTree. Records arriving before the last
+ * released timestamp can no longer be placed and are dropped and counted
+ * 
+ * @param <T>
+ */
+public class LateArrivalBuffer<T> {
+    private final EpochMillisAccessor<T> epochMillisAccessor;
+    private final long windowMs;
+    private final PriorityQueue<Pending<T>> pending = new PriorityQueue<>(
+            Comparator.<Pending<T>>comparingLong(Pending::key).thenComparingLong(Pending::sequence));
+    private long sequence;
+    private long maxEpochMillis = Long.MIN_VALUE;
+    private long releasedEpochMillis = Long.MIN_VALUE;
+    private long reorderedCount;
+    private long droppedCount;
+
+    private record Pending<T>(long key, long sequence, T record) {
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param epochMillisAccessor
+     * @param windowMs            how late a record may arrive, in milliseconds
+     */
+    public LateArrivalBuffer(EpochMillisAccessor<T> epochMillisAccessor, long windowMs) {
+        this.epochMillisAccessor = epochMillisAccessor;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Adds a batch of records
+     * 
+     * @param batch
+     * @return the records released by the batch, in timestamp order
+     */
+    public List<T> add(List<T> batch) {
+        for (T record : batch) {
+            long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
+            if (datetimeUtc < releasedEpochMillis) {
+                droppedCount++;
+                continue;
+            }
+            if (datetimeUtc < maxEpochMillis) {
+                reorderedCount++;
+            } else {
+                maxEpochMillis = datetimeUtc;
+            }
+            pending.add(new Pending<>(datetimeUtc, sequence++, record));
+        }
+        return release(maxEpochMillis > Long.MIN_VALUE + windowMs ? maxEpochMillis - windowMs : Long.MIN_VALUE);
+    }
+
+    /**
+     * Releases every held record, later records earlier than the last released
+     * timestamp are dropped
+     * 
+     * @return the held records in timestamp order
+     */
+    public List<T> flush() {
+        return release(Long.MAX_VALUE);
+    }
+
+    private List<T> release(long watermark) {
+        List<T> released = new ArrayList<>();
+        while (!pending.isEmpty() && pending.peek().key() <= watermark) {
+            Pending<T> next = pending.poll();
+            releasedEpochMillis = next.key();
+            released.add(next.record());
+        }
+        return released;
+    }
+
+    /**
+     * Returns the number of records that arrived after a record with a later
+     * timestamp and were reordered
+     * 
+     * @return
+     */
+    public long getReorderedCount() {
+        return reorderedCount;
+    }
+
+    /**
+     * Returns the number of records that arrived too late to be placed
+     * 
+     * @return
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of records held
+     * 
+     * @return
+     */
+    public int size() {
+        return pending.size();
+    }
+}
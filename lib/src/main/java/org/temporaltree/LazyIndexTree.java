@@ -0,0 +1,18 @@
+package org.temporaltree;
+
+import java.util.List;
+
+/**
+ * LazyIndexTree exposes the same nodes as TreeGenerator.generateIndexTree, but
+ * only computes the children of a node when they are requested. It is an
+ * IndexTree with the POWERS_OF_TEN configuration, node keys encode their
+ * inclusive index range, so no state is kept between requests
+ * 
+ * @param <T>
+ */
+public class LazyIndexTree<T> extends IndexTree<T> {
+
+    public LazyIndexTree(List<T> records) {
+        super(records, IndexTreeConfiguration.POWERS_OF_TEN);
+    }
+}
@@ -0,0 +1,157 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LazyTemporalTree bins a level of the temporal tree only when a node is
+ * expanded. Only the non-empty bins of the requested node's range are
+ * materialized, so listing the top level of a large record list does not touch
+ * the deeper levels at all. Node keys must be unique across levels, as they
+ * are with the default configuration. The top level nodes are always held,
+ * expanded nodes are held in a bounded cache with least recently used eviction
+ * 
+ * @param <T>
+ */
+public class LazyTemporalTree<T> {
+    public static final long DEFAULT_MAXIMUM_NODES = 100_000;
+
+    private final List<T> records;
+    private final EpochMillisAccessor<T> epochMillisAccessor;
+    private final ZoneId zoneId;
+    private final TemporalTreeConfiguration configuration;
+    private final Cache<String, ExpandableNode> nodes;
+    private volatile Map<String, ExpandableNode> rootNodes;
+    private volatile List<LazyTreeNode> roots;
+
+    private record ExpandableNode(LazyTreeNode node, TemporalTreeConfiguration configuration) {
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param zoneId
+     * @param treeConfiguration   configuration, or null for the default
+     */
+    public LazyTemporalTree(List<T> records, EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) {
+        this(records, epochMillisAccessor, zoneId, treeConfiguration, DEFAULT_MAXIMUM_NODES);
+    }
+
+    /**
+     * Constructor holding at most maximumNodes expanded nodes besides the top
+     * level, the children of an evicted node are found again by expanding its
+     * parent
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param zoneId
+     * @param treeConfiguration   configuration, or null for the default
+     * @param maximumNodes
+     */
+    public LazyTemporalTree(List<T> records, EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration, long maximumNodes) {
+        this.nodes = CacheBuilder.newBuilder().maximumSize(maximumNodes).build();
+        this.records = TreeUtils.randomAccess(records);
+        this.epochMillisAccessor = epochMillisAccessor;
+        this.zoneId = zoneId;
+        this.configuration = treeConfiguration != null ? treeConfiguration
+                : TreeGenerator.getDefaultTreeConfiguration();
+    }
+
+    /**
+     * Returns the top level nodes
+     * 
+     * @return
+     */
+    public List<LazyTreeNode> getRoots() {
+        if (roots == null) {
+            Map<String, ExpandableNode> expanded = new LinkedHashMap<>();
+            List<LazyTreeNode> top = expand(configuration, 0, records.size(), Long.MAX_VALUE, expanded);
+            rootNodes = expanded;
+            roots = top;
+        }
+        return roots;
+    }
+
+    /**
+     * Returns the child nodes of a node, the children of a leaf parent are its
+     * leaves, so an empty list is returned
+     * 
+     * @param key key of a top level node or of a node recently returned by this
+     *            tree
+     * @return
+     */
+    public List<LazyTreeNode> getChildren(String key) {
+        ExpandableNode expandable = getNode(key);
+        LazyTreeNode node = expandable.node();
+        if (node.leafParent()) {
+            return List.of();
+        }
+        return expand(expandable.configuration().breakConfiguration(), node.fromIndex(), node.toIndex(),
+                node.endUtcMs(), nodes.asMap());
+    }
+
+    /**
+     * Generates the leaves of a leaf parent node
+     * 
+     * @param key           key of a top level node or of a node recently returned
+     *                      by this tree
+     * @param leafGenerator
+     * @return
+     */
+    public ArrayNode getLeaves(String key, LeafGenerator<T> leafGenerator) {
+        LazyTreeNode node = getNode(key).node();
+        ArrayNode leaves = TreeUtils.OBJECT_MAPPER.createArrayNode();
+        if (node.leafParent()) {
+            leaves.addAll(BulkLeafGenerator.of(leafGenerator)
+                    .generateLeaves(records.subList(node.fromIndex(), node.toIndex())));
+        }
+        return leaves;
+    }
+
+    private ExpandableNode getNode(String key) {
+        if (roots == null) {
+            getRoots();
+        }
+        ExpandableNode expandable = rootNodes.get(key);
+        if (expandable == null) {
+            expandable = nodes.getIfPresent(key);
+        }
+        if (expandable == null) {
+            throw new IllegalArgumentException("Unknown or evicted node key: " + key);
+        }
+        return expandable;
+    }
+
+    /**
+     * Bins the records in [fromIndex, toIndex) at a level of the configuration,
+     * bins are clamped to end at the parent's end. The nodes are added to expanded
+     */
+    private List<LazyTreeNode> expand(TemporalTreeConfiguration levelConfiguration, int fromIndex, int toIndex,
+            long parentEndUtcMs, Map<String, ExpandableNode> expanded) {
+        List<LazyTreeNode> children = new ArrayList<>();
+        List<TemporalBinNode> ranges = DateBinner.placeNonEmptyRecordRanges(levelConfiguration,
+                records.subList(fromIndex, toIndex), epochMillisAccessor, zoneId);
+        for (TemporalBinNode range : ranges) {
+            boolean leafParent = levelConfiguration.breakLimit() == -1
+                    || levelConfiguration.breakConfiguration() == null
+                    || range.count() < levelConfiguration.breakLimit();
+            LazyTreeNode node = new LazyTreeNode(range.generateKey(), range.generateTitle(),
+                    fromIndex + range.fromIndex(), fromIndex + range.toIndex(), range.startUtcMs(),
+                    Math.min(range.endUtcMs(), parentEndUtcMs), leafParent);
+            expanded.put(node.key(), new ExpandableNode(node, levelConfiguration));
+            children.add(node);
+        }
+        return children;
+    }
+}
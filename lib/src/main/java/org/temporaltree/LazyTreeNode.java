@@ -0,0 +1,36 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * A node of a lazily expanded tree. The node covers the [fromIndex, toIndex)
+ * range of the source records, temporal nodes also carry the utc epoch
+ * millisecond range of their bin while index nodes leave it null. When
+ * leafParent is true the children of the node are the leaves of its records
+ */
+public record LazyTreeNode(String key, String title, int fromIndex, int toIndex, Long startUtcMs, Long endUtcMs,
+        boolean leafParent) {
+
+    public int count() {
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Creates an ObjectNode for the node without children, so the client can
+     * request them when the node is expanded
+     * 
+     * @return ObjectNode
+     */
+    public ObjectNode toObjectNode() {
+        ObjectNode node = TreeUtils.OBJECT_MAPPER.createObjectNode();
+        node.set("key", new TextNode(key));
+        node.set("title", new TextNode(title));
+        node.put("count", count());
+        if (startUtcMs != null) {
+            node.put("startUtcMs", startUtcMs);
+            node.put("endUtcMs", endUtcMs);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,13 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Streaming counterpart to LeafGenerator, writes a leaf for a record directly
+ * to a JsonGenerator
+ */
+public interface LeafWriter<T> {
+    void writeLeaf(JsonGenerator generator, T record) throws IOException;
+}
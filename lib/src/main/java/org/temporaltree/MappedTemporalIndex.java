@@ -0,0 +1,279 @@
+package org.temporaltree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Persisted index of sorted utc epoch millisecond timestamps and record offsets,
+ * memory mapped so indexes larger than the heap open without loading them.
+ * Entries are stored as interleaved (timestamp, offset) longs after a 16 byte
+ * header and mapped in chunks, as a single mapping is limited to 2GB. Trees are
+ * generated over slices of at most Integer.MAX_VALUE entries, with records
+ * resolved from their offsets only when leaves are generated
+ */
+public class MappedTemporalIndex {
+    static final int MAGIC = 0x54544931;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 16;
+    static final int DEFAULT_CHUNK_ENTRIES = 1 << 26;
+
+    private final long size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final MappedByteBuffer[] chunks;
+
+    private MappedTemporalIndex(long size, int chunkEntries, MappedByteBuffer[] chunks) {
+        this.size = size;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkEntries);
+        this.chunkMask = chunkEntries - 1;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Creates an index file, entries must be appended in timestamp order
+     * 
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static Writer create(Path path) throws IOException {
+        return new Writer(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Memory maps an index file
+     * 
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static MappedTemporalIndex open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_ENTRIES);
+    }
+
+    static MappedTemporalIndex open(Path path, int chunkEntries) throws IOException {
+        if (Integer.bitCount(chunkEntries) != 1 || chunkEntries > Integer.MAX_VALUE / ENTRY_SIZE) {
+            throw new IllegalArgumentException("Chunk entries must be a power of two below 2^27: " + chunkEntries);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("File is not a temporal index: " + path);
+            }
+            long size = header.getLong(8);
+            if (channel.size() < HEADER_SIZE + size * ENTRY_SIZE) {
+                throw new IllegalArgumentException("Temporal index is truncated: " + path);
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + chunkEntries - 1) / chunkEntries)];
+            for (int i = 0; i < chunks.length; i++) {
+                long first = (long) i * chunkEntries;
+                long entries = Math.min(chunkEntries, size - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * ENTRY_SIZE,
+                        entries * ENTRY_SIZE);
+            }
+            return new MappedTemporalIndex(size, chunkEntries, chunks);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getEpochMillis(long index) {
+        return chunks[(int) (index >>> chunkShift)].getLong((int) (index & chunkMask) * ENTRY_SIZE);
+    }
+
+    public long getOffset(long index) {
+        return chunks[(int) (index >>> chunkShift)].getLong((int) (index & chunkMask) * ENTRY_SIZE + 8);
+    }
+
+    /**
+     * Binary searches for the first entry with a timestamp at or after
+     * datetimeUtc
+     * 
+     * @param datetimeUtc
+     * @return index of the first entry at or after datetimeUtc, or size
+     */
+    public long findFirstAtOrAfter(long datetimeUtc) {
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getEpochMillis(mid) < datetimeUtc) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the entries in the range [fromIndex, toIndex)
+     * 
+     * @param fromIndex
+     * @param toIndex
+     * @return
+     */
+    public Slice slice(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid slice [" + fromIndex + ", " + toIndex + ") of " + size);
+        }
+        if (toIndex - fromIndex > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Slices are limited to " + Integer.MAX_VALUE + " entries");
+        }
+        return new Slice(fromIndex, (int) (toIndex - fromIndex));
+    }
+
+    /**
+     * Returns the entries with timestamps in the range [startUtcMs, endUtcMs)
+     * 
+     * @param startUtcMs
+     * @param endUtcMs
+     * @return
+     */
+    public Slice sliceBetween(long startUtcMs, long endUtcMs) {
+        long fromIndex = findFirstAtOrAfter(startUtcMs);
+        return slice(fromIndex, Math.max(fromIndex, findFirstAtOrAfter(endUtcMs)));
+    }
+
+    /**
+     * Contiguous range of index entries, bins produced from a slice reference
+     * indexes relative to the start of the slice
+     */
+    public class Slice implements TimestampColumn {
+        private final long fromIndex;
+        private final int size;
+
+        private Slice(long fromIndex, int size) {
+            this.fromIndex = fromIndex;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long getEpochMillis(int index) {
+            return MappedTemporalIndex.this.getEpochMillis(fromIndex + index);
+        }
+
+        public long getOffset(int index) {
+            return MappedTemporalIndex.this.getOffset(fromIndex + index);
+        }
+
+        /**
+         * Bins the slice into every level of a temporal tree configuration
+         * 
+         * @param zoneId
+         * @param configuration
+         * @return top level bins
+         */
+        public List<TemporalBinNode> bin(ZoneId zoneId, TemporalTreeConfiguration configuration) {
+            return TemporalTreeBinner.bin(this, 0, size, zoneId, configuration);
+        }
+
+        /**
+         * Views the slice as a list of records resolved on access, for generating
+         * the leaves of bins produced from the slice
+         * 
+         * @param recordResolver
+         * @return
+         */
+        public <T> List<T> records(RecordResolver<T> recordResolver) {
+            return new ResolvedRecords<>(this, recordResolver);
+        }
+    }
+
+    private static class ResolvedRecords<T> extends AbstractList<T> implements RandomAccess {
+        private final Slice slice;
+        private final RecordResolver<T> recordResolver;
+
+        ResolvedRecords(Slice slice, RecordResolver<T> recordResolver) {
+            this.slice = slice;
+            this.recordResolver = recordResolver;
+        }
+
+        @Override
+        public T get(int index) {
+            return recordResolver.resolve(slice.getOffset(index));
+        }
+
+        @Override
+        public int size() {
+            return slice.size();
+        }
+    }
+
+    /**
+     * Appends sorted entries to an index file, the entry count is written to the
+     * header on close
+     */
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(ENTRY_SIZE * 4096);
+        private long count;
+        private long lastEpochMillis = Long.MIN_VALUE;
+
+        private Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            buffer.putInt(MAGIC).putInt(0).putLong(0);
+        }
+
+        /**
+         * Appends an entry
+         * 
+         * @param epochMillis timestamp, not before the previous entry's
+         * @param offset      offset passed to the RecordResolver
+         * @throws IOException
+         */
+        public void append(long epochMillis, long offset) throws IOException {
+            if (epochMillis < lastEpochMillis) {
+                throw new IllegalArgumentException(
+                        "Entries must be appended in timestamp order: " + epochMillis + " < " + lastEpochMillis);
+            }
+            if (buffer.remaining() < ENTRY_SIZE) {
+                flush();
+            }
+            buffer.putLong(epochMillis).putLong(offset);
+            lastEpochMillis = epochMillis;
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer countBuffer = ByteBuffer.allocate(8).putLong(0, count);
+                while (countBuffer.hasRemaining()) {
+                    channel.write(countBuffer, 8 + countBuffer.position());
+                }
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.temporaltree;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Timestamp column stored off heap, with a record id per timestamp. Binning
+ * reads the timestamps directly from direct buffers so no record objects are
+ * held, records are resolved from their ids only when leaves are generated.
+ * Columns are limited to 2^28 entries, the size of a direct buffer of longs.
+ * <p>
+ * The buffers are freed when the column is closed, and replaced buffers as the
+ * column grows. Where the JDK's buffer cleaner is not accessible they are left
+ * to the garbage collector, which only frees direct memory once the buffers are
+ * collected. A closed column must not be read, including through the bins and
+ * records views produced from it
+ */
+public class OffHeapTimestampColumn implements TimestampColumn, AutoCloseable {
+    static final int MAX_CAPACITY = Integer.MAX_VALUE / Long.BYTES;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // buffers are left to the garbage collector
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private ByteBuffer timestampBytes;
+    private ByteBuffer idBytes;
+    private LongBuffer timestamps;
+    private LongBuffer ids;
+    private int size;
+
+    /**
+     * @param initialCapacity entries allocated up front, the column grows as
+     *                        needed
+     */
+    public OffHeapTimestampColumn(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity
+                    + ", columns are limited to " + MAX_CAPACITY + " entries");
+        }
+        resize(Math.max(1, initialCapacity));
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Moves the entries to new buffers of the capacity, freeing the old buffers
+     */
+    private void resize(int capacity) {
+        ByteBuffer newTimestampBytes = allocate(capacity);
+        ByteBuffer newIdBytes = allocate(capacity);
+        LongBuffer newTimestamps = newTimestampBytes.asLongBuffer();
+        LongBuffer newIds = newIdBytes.asLongBuffer();
+        if (timestamps != null) {
+            newTimestamps.put(0, timestamps, 0, size);
+            newIds.put(0, ids, 0, size);
+            free();
+        }
+        timestampBytes = newTimestampBytes;
+        idBytes = newIdBytes;
+        timestamps = newTimestamps;
+        ids = newIds;
+    }
+
+    /**
+     * Appends an entry, entries must be appended in timestamp order
+     * 
+     * @param epochMillis
+     * @param id          id passed to the RecordResolver
+     */
+    public void append(long epochMillis, long id) {
+        if (size > 0 && epochMillis < timestamps.get(size - 1)) {
+            throw new IllegalArgumentException("Entries must be appended in timestamp order: " + epochMillis
+                    + " < " + timestamps.get(size - 1));
+        }
+        if (size == timestamps.capacity()) {
+            grow();
+        }
+        timestamps.put(size, epochMillis);
+        ids.put(size, id);
+        size++;
+    }
+
+    private void grow() {
+        if (size == MAX_CAPACITY) {
+            throw new IllegalStateException("Column is limited to " + MAX_CAPACITY + " entries");
+        }
+        resize((int) Math.min(MAX_CAPACITY, (long) size * 2));
+    }
+
+    /**
+     * Frees the buffers of the column, it is empty afterwards and must not be
+     * used
+     */
+    @Override
+    public void close() {
+        if (timestamps != null) {
+            free();
+            timestampBytes = null;
+            idBytes = null;
+            timestamps = null;
+            ids = null;
+            size = 0;
+        }
+    }
+
+    private void free() {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, timestampBytes);
+            INVOKE_CLEANER.invoke(UNSAFE, idBytes);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to free column buffers", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getEpochMillis(int index) {
+        return timestamps.get(index);
+    }
+
+    public long getId(int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * Views the column as a list of records resolved from their ids on access,
+     * for generating the leaves of bins produced from the column
+     * 
+     * @param recordResolver
+     * @return
+     */
+    public <T> List<T> records(RecordResolver<T> recordResolver) {
+        return new ResolvedRecords<>(this, recordResolver);
+    }
+
+    private static class ResolvedRecords<T> extends AbstractList<T> implements RandomAccess {
+        private final OffHeapTimestampColumn column;
+        private final RecordResolver<T> recordResolver;
+
+        ResolvedRecords(OffHeapTimestampColumn column, RecordResolver<T> recordResolver) {
+            this.column = column;
+            this.recordResolver = recordResolver;
+        }
+
+        @Override
+        public T get(int index) {
+            return recordResolver.resolve(column.getId(index));
+        }
+
+        @Override
+        public int size() {
+            return column.size();
+        }
+    }
+}
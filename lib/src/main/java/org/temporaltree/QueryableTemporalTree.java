@@ -0,0 +1,153 @@
+package org.temporaltree;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers time range and point queries over the bins of a built temporal tree.
+ * Sibling bins are sorted and disjoint, so each level is binary searched by
+ * its epoch boundaries and the records of partially covered bins are found by
+ * binary searching the timestamps, a query never re-bins records
+ */
+public class QueryableTemporalTree {
+    private final TimestampColumn timestamps;
+    private final List<TemporalBinNode> bins;
+
+    /**
+     * @param timestamps the sorted timestamps the bins were generated from
+     * @param bins       top level bins produced by the TemporalTreeBinner
+     */
+    public QueryableTemporalTree(TimestampColumn timestamps, List<TemporalBinNode> bins) {
+        this.timestamps = timestamps;
+        this.bins = bins;
+    }
+
+    /**
+     * Bins the records and builds a queryable tree over them
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param zoneId
+     * @param treeConfiguration   defaults to the TreeGenerator configuration when
+     *                            null
+     * @return
+     */
+    public static <T> QueryableTemporalTree of(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            ZoneId zoneId, TemporalTreeConfiguration treeConfiguration) {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : TreeGenerator.getDefaultTreeConfiguration();
+        TimestampColumn timestamps = TimestampColumn.of(records, epochMillisAccessor);
+        return new QueryableTemporalTree(timestamps,
+                TemporalTreeBinner.bin(timestamps, 0, timestamps.size(), zoneId, configuration));
+    }
+
+    public List<TemporalBinNode> getBins() {
+        return bins;
+    }
+
+    /**
+     * Returns the index range of the records with timestamps in [startUtcMs,
+     * endUtcMs)
+     * 
+     * @param startUtcMs
+     * @param endUtcMs
+     * @return
+     */
+    public RecordRange getRecordRange(long startUtcMs, long endUtcMs) {
+        int size = timestamps.size();
+        int fromIndex = DateBinner.findFirstAtOrAfter(timestamps, 0, size, startUtcMs);
+        int toIndex = DateBinner.findFirstAtOrAfter(timestamps, fromIndex, size, Math.max(startUtcMs, endUtcMs));
+        return new RecordRange(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns the deepest bin whose boundaries contain the timestamp
+     * 
+     * @param epochMillis
+     * @return the bin, or null when no non-empty bin contains the timestamp
+     */
+    public TemporalBinNode findNode(long epochMillis) {
+        TemporalBinNode found = null;
+        List<TemporalBinNode> level = bins;
+        while (!level.isEmpty()) {
+            int index = firstEndingAfter(level, epochMillis);
+            if (index == level.size() || level.get(index).startUtcMs() > epochMillis) {
+                break;
+            }
+            found = level.get(index);
+            level = found.children();
+        }
+        return found;
+    }
+
+    /**
+     * Returns the subtree of the records with timestamps in [startUtcMs,
+     * endUtcMs). Bins inside the range are returned as they are, bins overlapping
+     * an end of the range are copied with their record range and children clipped.
+     * The result can be passed to TreeGenerator with the original records
+     * 
+     * @param startUtcMs
+     * @param endUtcMs
+     * @return top level bins of the subtree
+     */
+    public List<TemporalBinNode> query(long startUtcMs, long endUtcMs) {
+        return query(bins, startUtcMs, endUtcMs);
+    }
+
+    private List<TemporalBinNode> query(List<TemporalBinNode> level, long startUtcMs, long endUtcMs) {
+        List<TemporalBinNode> matches = new ArrayList<>();
+        for (int i = firstEndingAfter(level, startUtcMs); i < level.size()
+                && level.get(i).startUtcMs() < endUtcMs; i++) {
+            TemporalBinNode bin = level.get(i);
+            if (startUtcMs <= bin.startUtcMs() && bin.endUtcMs() <= endUtcMs) {
+                matches.add(bin);
+            } else if (!bin.children().isEmpty()) {
+                List<TemporalBinNode> children = query(bin.children(), startUtcMs, endUtcMs);
+                if (!children.isEmpty()) {
+                    matches.add(new TemporalBinNode(bin.configuration(), bin.date(), bin.startUtcMs(),
+                            bin.endUtcMs(), children.get(0).fromIndex(), children.get(children.size() - 1).toIndex(),
+                            children));
+                }
+            } else {
+                int fromIndex = DateBinner.findFirstAtOrAfter(timestamps, bin.fromIndex(), bin.toIndex(), startUtcMs);
+                int toIndex = DateBinner.findFirstAtOrAfter(timestamps, fromIndex, bin.toIndex(), endUtcMs);
+                if (fromIndex < toIndex) {
+                    matches.add(new TemporalBinNode(bin.configuration(), bin.date(), bin.startUtcMs(),
+                            bin.endUtcMs(), fromIndex, toIndex, List.of()));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Binary searches for the first bin ending after the timestamp
+     */
+    private static int firstEndingAfter(List<TemporalBinNode> level, long epochMillis) {
+        int low = 0;
+        int high = level.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (level.get(mid).endUtcMs() <= epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index range [fromIndex, toIndex) of the records matching a query
+     */
+    public record RecordRange(int fromIndex, int toIndex) {
+        public int count() {
+            return toIndex - fromIndex;
+        }
+
+        public <T> List<T> records(List<T> records) {
+            return records.subList(fromIndex, toIndex);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.temporaltree;
+
+/**
+ * Resolves a record from the offset or id stored alongside its timestamp in a
+ * MappedTemporalIndex or OffHeapTimestampColumn, for example a byte position
+ * in a data file or a primary key
+ */
+public interface RecordResolver<T> {
+    T resolve(long offset);
+}
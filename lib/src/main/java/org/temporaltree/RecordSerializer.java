@@ -0,0 +1,14 @@
+package org.temporaltree;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serializes records to the spill files of an external sort
+ */
+public interface RecordSerializer<T> {
+    void write(DataOutput output, T record) throws IOException;
+
+    T read(DataInput input) throws IOException;
+}
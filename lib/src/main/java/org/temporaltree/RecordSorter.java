@@ -0,0 +1,382 @@
+package org.temporaltree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Input stage sorting records by their epoch millisecond timestamp before they
+ * are binned, the binners require sorted records and drop or misplace records
+ * that are out of order. Timestamps are read once per record and sorted as
+ * primitive keys with a stable parallel sort, inputs above a memory threshold
+ * are sorted in runs spilled to disk and merged. Callers pass the sorted
+ * records on to the TreeGenerator entry points themselves
+ * 
+ * @param <T>
+ */
+public class RecordSorter<T> {
+    /**
+     * Maximum number of spill runs merged at once, more runs are merged in passes
+     * so open files and read buffers stay bounded
+     */
+    static final int MAX_MERGE_WIDTH = 64;
+
+    private final EpochMillisAccessor<T> epochMillisAccessor;
+
+    public RecordSorter(EpochMillisAccessor<T> epochMillisAccessor) {
+        this.epochMillisAccessor = epochMillisAccessor;
+    }
+
+    /**
+     * Sorted records and the number of records that arrived after a record with a
+     * later timestamp
+     */
+    public record SortResult<T>(List<T> records, long reorderedCount) {
+    }
+
+    /**
+     * Sorts records in memory, records with equal timestamps keep their order.
+     * Sorted input is returned as is
+     * 
+     * @param records
+     * @return
+     */
+    public SortResult<T> sort(List<T> records) {
+        long reorderedCount = countReordered(records);
+        if (reorderedCount == 0) {
+            return new SortResult<>(records, 0);
+        }
+        return new SortResult<>(sortRecords(records), reorderedCount);
+    }
+
+    /**
+     * Counts the records with a timestamp earlier than a preceding record
+     * 
+     * @param records
+     * @return
+     */
+    public long countReordered(List<T> records) {
+        long reorderedCount = 0;
+        long max = Long.MIN_VALUE;
+        for (T record : records) {
+            long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
+            if (datetimeUtc < max) {
+                reorderedCount++;
+            } else {
+                max = datetimeUtc;
+            }
+        }
+        return reorderedCount;
+    }
+
+    /**
+     * Sorts the records by timestamp without boxing. When the timestamp range
+     * leaves room, the key relative to the minimum and the record's index are
+     * packed into one long, so a primitive sort is stable. Otherwise an index
+     * permutation is merge sorted by key
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> sortRecords(List<T> records) {
+        Object[] source = records.toArray();
+        int size = source.length;
+        long[] keys = new long[size];
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            keys[i] = epochMillisAccessor.getEpochMillis((T) source[i]);
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+        int[] order = new int[size];
+        int indexBits = 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 1));
+        if (size > 0 && max - min >= 0 && max - min < 1L << (63 - indexBits)) {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = (keys[i] - min) << indexBits | i;
+            }
+            Arrays.parallelSort(packed);
+            long indexMask = (1L << indexBits) - 1;
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) (packed[i] & indexMask);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[size], keys);
+        }
+        List<T> sorted = new ArrayList<>(size);
+        for (int index : order) {
+            sorted.add((T) source[index]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Bottom up stable merge sort of record indexes by their keys
+     */
+    private static void mergeSort(int[] order, int[] buffer, long[] keys) {
+        int size = order.length;
+        int[] from = order;
+        int[] to = buffer;
+        for (int width = 1; width < size; width <<= 1) {
+            for (int low = 0; low < size; low += width << 1) {
+                int middle = Math.min(low + width, size);
+                int high = Math.min(low + (width << 1), size);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (left < middle && (right >= high || keys[from[left]] <= keys[from[right]])) {
+                        to[i] = from[left++];
+                    } else {
+                        to[i] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != order) {
+            System.arraycopy(from, 0, order, 0, size);
+        }
+    }
+
+    /**
+     * Sorts records that may not fit in memory. Runs of up to maxRecordsInMemory
+     * records are sorted and spilled to files in spillDirectory. Runs are merged
+     * MAX_MERGE_WIDTH at a time into longer runs until at most MAX_MERGE_WIDTH are
+     * left, those are merged as the returned iterator is consumed and deleted
+     * when it is closed. Records with equal timestamps keep their order
+     * 
+     * @param records
+     * @param recordSerializer
+     * @param maxRecordsInMemory at least 1
+     * @param spillDirectory
+     * @return
+     * @throws IOException
+     */
+    public SortedIterator<T> sort(Iterator<T> records, RecordSerializer<T> recordSerializer,
+            int maxRecordsInMemory, Path spillDirectory) throws IOException {
+        if (maxRecordsInMemory < 1) {
+            throw new IllegalArgumentException("Invalid maximum records in memory: " + maxRecordsInMemory);
+        }
+        List<T> run = new ArrayList<>();
+        List<Path> spillFiles = new ArrayList<>();
+        long reorderedCount = 0;
+        long max = Long.MIN_VALUE;
+        try {
+            while (records.hasNext()) {
+                T record = records.next();
+                long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
+                if (datetimeUtc < max) {
+                    reorderedCount++;
+                } else {
+                    max = datetimeUtc;
+                }
+                run.add(record);
+                if (run.size() >= maxRecordsInMemory) {
+                    spillFiles.add(spill(sortRecords(run), recordSerializer, spillDirectory));
+                    run.clear();
+                }
+            }
+            if (spillFiles.isEmpty()) {
+                return new SortedIterator<>(sortRecords(run).iterator(), List.of(), List.of(), reorderedCount);
+            }
+            if (!run.isEmpty()) {
+                spillFiles.add(spill(sortRecords(run), recordSerializer, spillDirectory));
+            }
+            while (spillFiles.size() > MAX_MERGE_WIDTH) {
+                mergePass(spillFiles, recordSerializer, spillDirectory);
+            }
+            List<SpillRun<T>> runs = openRuns(spillFiles, recordSerializer);
+            return new SortedIterator<>(TemporalTreeMerger.merge(runs, epochMillisAccessor), runs, spillFiles,
+                    reorderedCount);
+        } catch (IOException | RuntimeException e) {
+            for (Path spillFile : spillFiles) {
+                Files.deleteIfExists(spillFile);
+            }
+            throw e;
+        }
+    }
+
+    private Path spill(List<T> run, RecordSerializer<T> recordSerializer, Path spillDirectory) throws IOException {
+        return spill(run.size(), run.iterator(), recordSerializer, spillDirectory);
+    }
+
+    private Path spill(long count, Iterator<T> run, RecordSerializer<T> recordSerializer, Path spillDirectory)
+            throws IOException {
+        Path spillFile = Files.createTempFile(spillDirectory, "temporal-tree-run", ".bin");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(spillFile), 1 << 16))) {
+            output.writeLong(count);
+            while (run.hasNext()) {
+                recordSerializer.write(output, run.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spillFile);
+            throw e;
+        }
+        return spillFile;
+    }
+
+    /**
+     * Merges consecutive groups of MAX_MERGE_WIDTH spill files into one file
+     * each, replacing them in spillFiles. Groups keep the order of the runs so
+     * the merge stays stable
+     */
+    private void mergePass(List<Path> spillFiles, RecordSerializer<T> recordSerializer, Path spillDirectory)
+            throws IOException {
+        List<Path> merged = new ArrayList<>();
+        try {
+            for (int from = 0; from < spillFiles.size(); from += MAX_MERGE_WIDTH) {
+                List<Path> group = spillFiles.subList(from, Math.min(spillFiles.size(), from + MAX_MERGE_WIDTH));
+                List<SpillRun<T>> runs = openRuns(group, recordSerializer);
+                try {
+                    long count = 0;
+                    for (SpillRun<T> run : runs) {
+                        count += run.remaining;
+                    }
+                    merged.add(spill(count, TemporalTreeMerger.merge(runs, epochMillisAccessor), recordSerializer,
+                            spillDirectory));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    for (SpillRun<T> run : runs) {
+                        run.close();
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path spillFile : merged) {
+                Files.deleteIfExists(spillFile);
+            }
+            throw e;
+        }
+        List<Path> previous = new ArrayList<>(spillFiles);
+        spillFiles.clear();
+        spillFiles.addAll(merged);
+        for (Path spillFile : previous) {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    private List<SpillRun<T>> openRuns(List<Path> spillFiles, RecordSerializer<T> recordSerializer)
+            throws IOException {
+        List<SpillRun<T>> runs = new ArrayList<>();
+        try {
+            for (Path spillFile : spillFiles) {
+                runs.add(new SpillRun<>(spillFile, recordSerializer));
+            }
+        } catch (IOException e) {
+            for (SpillRun<T> run : runs) {
+                run.close();
+            }
+            throw e;
+        }
+        return runs;
+    }
+
+    /**
+     * Iterator over sorted records, closing it deletes any spill files
+     */
+    public static class SortedIterator<T> implements Iterator<T>, Closeable {
+        private final Iterator<T> iterator;
+        private final List<? extends Closeable> runs;
+        private final List<Path> spillFiles;
+        private final long reorderedCount;
+
+        SortedIterator(Iterator<T> iterator, List<? extends Closeable> runs, List<Path> spillFiles,
+                long reorderedCount) {
+            this.iterator = iterator;
+            this.runs = runs;
+            this.spillFiles = spillFiles;
+            this.reorderedCount = reorderedCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        /**
+         * Returns the number of records that arrived after a record with a later
+         * timestamp
+         * 
+         * @return
+         */
+        public long getReorderedCount() {
+            return reorderedCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Closeable run : runs) {
+                run.close();
+            }
+            for (Path spillFile : spillFiles) {
+                Files.deleteIfExists(spillFile);
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a sorted spill file, which starts with its record
+     * count. The runs are merged by TemporalTreeMerger
+     */
+    private static class SpillRun<T> implements Iterator<T>, Closeable {
+        private final DataInputStream input;
+        private final RecordSerializer<T> recordSerializer;
+        private long remaining;
+
+        SpillRun(Path spillFile, RecordSerializer<T> recordSerializer) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile), 1 << 16));
+            this.recordSerializer = recordSerializer;
+            try {
+                this.remaining = input.readLong();
+            } catch (IOException e) {
+                input.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            try {
+                return recordSerializer.read(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.temporaltree;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * StreamingTreeBinner builds a temporal tree from sorted records in a single
+ * pass without knowing the time range up front. Nodes are emitted to a sink as
+ * soon as their bin is opened, so the output can be written while records are
+ * still being read. Whether a bin is broken down is only known once it reaches
+ * its breakLimit, so records of an undecided bin are held until then, memory is
+ * bounded by the breakLimits rather than the number of records
+ * 
+ * @param <T>
+ */
+class StreamingTreeBinner<T> {
+
+	/**
+	 * Receives the nodes and leaves of the tree in document order
+	 */
+	interface Sink<T> {
+		void nodeStart(String key, String title) throws IOException;
+
+		void leaves(List<T> records) throws IOException;
+
+		void nodeEnd() throws IOException;
+	}
+
+	private final EpochMillisAccessor<T> epochMillisAccessor;
+	private final ZoneId zoneId;
+	private final Sink<T> sink;
+	private final TemporalTreeConfiguration[] levels;
+	private final boolean[] open;
+	private final boolean[] broken;
+	private final long[] ends;
+	private final long[] recordsBinned;
+	private final long[] breakDowns;
+	private long nodes;
+	private long leaves;
+	private final List<List<T>> pending = new ArrayList<>();
+	private long previousUtcMs = Long.MIN_VALUE;
+
+	StreamingTreeBinner(EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId,
+			TemporalTreeConfiguration configuration, Sink<T> sink) {
+		this.epochMillisAccessor = epochMillisAccessor;
+		this.zoneId = zoneId;
+		this.sink = sink;
+		this.levels = TemporalTreeBinner.getLevels(configuration);
+		this.open = new boolean[levels.length];
+		this.broken = new boolean[levels.length];
+		this.ends = new long[levels.length];
+		this.recordsBinned = new long[levels.length];
+		this.breakDowns = new long[levels.length];
+		for (int l = 0; l < levels.length; l++) {
+			pending.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	 * Bins every record of the iterator and closes the open bins
+	 * 
+	 * @param records sorted records
+	 * @throws IOException
+	 */
+	void bin(Iterator<T> records) throws IOException {
+		while (records.hasNext()) {
+			add(records.next());
+		}
+		finish();
+	}
+
+	void add(T record) throws IOException {
+		long datetimeUtc = epochMillisAccessor.getEpochMillis(record);
+		if (datetimeUtc < previousUtcMs) {
+			throw new IllegalArgumentException(
+					"Records must be sorted: " + datetimeUtc + " follows " + previousUtcMs);
+		}
+		previousUtcMs = datetimeUtc;
+		add(0, record, datetimeUtc);
+	}
+
+	void finish() throws IOException {
+		if (open[0]) {
+			close(0);
+		}
+	}
+
+	/**
+	 * Reports the records and break downs of every level and the nodes and leaves
+	 * emitted
+	 * 
+	 * @param metricsListener
+	 */
+	void report(TreeMetricsListener metricsListener) {
+		for (int l = 0; l < levels.length && recordsBinned[l] > 0; l++) {
+			metricsListener.recordsBinned(l, recordsBinned[l]);
+			metricsListener.breakDowns(l, breakDowns[l]);
+		}
+		metricsListener.nodesProduced(nodes);
+		metricsListener.leavesGenerated(leaves);
+	}
+
+	private void add(int level, T record, long datetimeUtc) throws IOException {
+		if (open[level] && datetimeUtc >= ends[level]) {
+			close(level);
+		}
+		if (!open[level]) {
+			open(level, datetimeUtc);
+		}
+		recordsBinned[level]++;
+		if (broken[level]) {
+			add(level + 1, record, datetimeUtc);
+		} else if (level == levels.length - 1) {
+			// the deepest level is never broken down, so its leaves are not held
+			sink.leaves(List.of(record));
+			leaves++;
+		} else {
+			List<T> levelPending = pending.get(level);
+			levelPending.add(record);
+			if (levelPending.size() >= levels[level].breakLimit()) {
+				broken[level] = true;
+				breakDowns[level]++;
+				for (T held : levelPending) {
+					add(level + 1, held, epochMillisAccessor.getEpochMillis(held));
+				}
+				levelPending.clear();
+			}
+		}
+	}
+
+	private void open(int level, long datetimeUtc) throws IOException {
+		TemporalTreeConfiguration configuration = levels[level];
+		ZonedDateTime start = DateBinner.getStart(configuration.timeUnit(),
+				ZonedDateTime.ofInstant(Instant.ofEpochMilli(datetimeUtc), zoneId));
+		long end = DateBoundaryCalculator.getNext(configuration.timeUnit(), start.toInstant().toEpochMilli(),
+				zoneId);
+		ends[level] = level > 0 ? Math.min(end, ends[level - 1]) : end;
+		open[level] = true;
+		nodes++;
+		sink.nodeStart(configuration.keyGenerator().generateKey(start),
+				configuration.titleGenerator().generateTitle(start));
+	}
+
+	private void close(int level) throws IOException {
+		if (broken[level]) {
+			if (open[level + 1]) {
+				close(level + 1);
+			}
+		} else {
+			List<T> levelPending = pending.get(level);
+			if (!levelPending.isEmpty()) {
+				sink.leaves(levelPending);
+				leaves += levelPending.size();
+				levelPending.clear();
+			}
+		}
+		sink.nodeEnd();
+		open[level] = false;
+		broken[level] = false;
+	}
+}
@@ -0,0 +1,60 @@
+package org.temporaltree;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A TemporalBinNode is a non-empty bin of a temporal tree. Rather than holding
+ * its records it references the [fromIndex, toIndex) range of the sorted
+ * source list. Bins that were broken down by their configuration's breakLimit
+ * contain child bins, otherwise children is empty and the records are leaves.
+ * Index chunk nodes of adaptive trees have no configuration or date
+ */
+public record TemporalBinNode(TemporalTreeConfiguration configuration, ZonedDateTime date, long startUtcMs,
+        long endUtcMs, int fromIndex, int toIndex, List<TemporalBinNode> children) {
+
+    public int count() {
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the value of the configuration's time field for the bin, such as
+     * the hour of the day
+     * 
+     * @return
+     */
+    public long value() {
+        return date.getLong(configuration.timeField());
+    }
+
+    /**
+     * Generates the key of the bin, index chunks are keyed by their inclusive
+     * index range like the nodes of an index tree
+     * 
+     * @return
+     */
+    public String generateKey() {
+        return configuration != null ? configuration.keyGenerator().generateKey(date)
+                : fromIndex + "-" + (toIndex - 1);
+    }
+
+    /**
+     * Generates the title of the bin
+     * 
+     * @return
+     */
+    public String generateTitle() {
+        return configuration != null ? configuration.titleGenerator().generateTitle(date)
+                : fromIndex + "-" + (toIndex - 1);
+    }
+
+    /**
+     * Returns a view of the records in this bin
+     * 
+     * @param records the source list the bin was generated from
+     * @return
+     */
+    public <T> List<T> records(List<T> records) {
+        return records.subList(fromIndex, toIndex);
+    }
+}
@@ -0,0 +1,213 @@
+package org.temporaltree;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TemporalTreeBinner bins sorted records into every level of a temporal tree
+ * configuration in a single pass. Each record's timestamp is read once and
+ * compared against the end of the deepest open bin, bin boundaries are only
+ * looked up, in the shared BinBoundaryCache, when a record crosses one.
+ */
+public class TemporalTreeBinner {
+
+	private TemporalTreeBinner() {
+	}
+
+	/**
+	 * Bins all records
+	 * 
+	 * @param records             sorted records
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @param configuration
+	 * @return top level bins
+	 */
+	public static <T> List<TemporalBinNode> bin(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+			ZoneId zoneId, TemporalTreeConfiguration configuration) {
+		return bin(records, 0, records.size(), epochMillisAccessor, zoneId, configuration);
+	}
+
+	/**
+	 * Bins the records in the range [fromIndex, toIndex), the bins produced
+	 * reference indexes in the records list
+	 * 
+	 * @param records             sorted records
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param epochMillisAccessor
+	 * @param zoneId
+	 * @param configuration
+	 * @return top level bins
+	 */
+	public static <T> List<TemporalBinNode> bin(List<T> records, int fromIndex, int toIndex,
+			EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId, TemporalTreeConfiguration configuration) {
+		return bin(TimestampColumn.of(records, epochMillisAccessor), fromIndex, toIndex, zoneId, configuration);
+	}
+
+	/**
+	 * Bins the timestamps in the range [fromIndex, toIndex) of a column, the bins
+	 * produced reference indexes in the column
+	 * 
+	 * @param timestamps    sorted timestamps
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param zoneId
+	 * @param configuration
+	 * @return top level bins
+	 */
+	public static List<TemporalBinNode> bin(TimestampColumn timestamps, int fromIndex, int toIndex, ZoneId zoneId,
+			TemporalTreeConfiguration configuration) {
+		return bin(timestamps, fromIndex, toIndex, zoneId, configuration, TreeMetricsListener.NOOP);
+	}
+
+	/**
+	 * Bins the timestamps in the range [fromIndex, toIndex) of a column, reporting
+	 * the time spent calculating bin boundaries and the bins created at every
+	 * level, including those dropped under a parent below its breakLimit, to the
+	 * metrics listener
+	 * 
+	 * @param timestamps      sorted timestamps
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param zoneId
+	 * @param configuration
+	 * @param metricsListener
+	 * @return top level bins
+	 */
+	public static List<TemporalBinNode> bin(TimestampColumn timestamps, int fromIndex, int toIndex, ZoneId zoneId,
+			TemporalTreeConfiguration configuration, TreeMetricsListener metricsListener) {
+		boolean timed = metricsListener != TreeMetricsListener.NOOP;
+		long boundaryNanos = 0;
+		TemporalTreeConfiguration[] levels = getLevels(configuration);
+		int depth = levels.length;
+		long[] created = new long[depth];
+		ZonedDateTime[] dates = new ZonedDateTime[depth];
+		long[] starts = new long[depth];
+		long[] ends = new long[depth];
+		int[] froms = new int[depth];
+		// the boundaries of the last period looked up at each level
+		BinBoundaryCache.PeriodBoundaries[] periods = new BinBoundaryCache.PeriodBoundaries[depth];
+		BinBoundaryCache boundaryCache = BinBoundaryCache.getDefault();
+		// children.get(l + 1) collects the children of the open bin at level l
+		List<List<TemporalBinNode>> children = new ArrayList<>(depth + 1);
+		children.add(new ArrayList<>());
+		for (int l = 0; l < depth; l++) {
+			children.add(null);
+		}
+
+		boolean open = false;
+		for (int i = fromIndex; i < toIndex; i++) {
+			long datetimeUtc = timestamps.getEpochMillis(i);
+			if (open && datetimeUtc < ends[depth - 1]) {
+				continue;
+			}
+
+			// find the shallowest level the record has moved past, close every bin below
+			// it and open new bins containing the record
+			int level = 0;
+			while (open && datetimeUtc < ends[level]) {
+				level++;
+			}
+			if (open) {
+				closeLevels(levels, dates, starts, ends, froms, children, level, i);
+			}
+			long boundaryStart = timed ? System.nanoTime() : 0;
+			for (int l = level; l < depth; l++) {
+				BinBoundaryCache.PeriodBoundaries period = periods[l];
+				if (period == null || !period.contains(datetimeUtc)) {
+					period = boundaryCache.getPeriod(levels[l].timeUnit(), datetimeUtc, zoneId);
+					periods[l] = period;
+				}
+				int bin = period.indexOf(datetimeUtc);
+				dates[l] = period.dates()[bin];
+				starts[l] = period.boundaries()[bin];
+				long end = period.boundaries()[bin + 1];
+				ends[l] = l > 0 ? Math.min(end, ends[l - 1]) : end;
+				froms[l] = i;
+				children.set(l + 1, new ArrayList<>());
+				created[l]++;
+			}
+			if (timed) {
+				boundaryNanos += System.nanoTime() - boundaryStart;
+			}
+			open = true;
+		}
+		if (open) {
+			closeLevels(levels, dates, starts, ends, froms, children, 0, toIndex);
+		}
+		if (timed) {
+			metricsListener.phaseCompleted(TreeMetricsListener.Phase.BOUNDARY_CALCULATION, boundaryNanos);
+			List<TemporalBinNode> level = children.get(0);
+			for (int l = 0; l < depth; l++) {
+				List<TemporalBinNode> next = new ArrayList<>();
+				for (TemporalBinNode bin : level) {
+					next.addAll(bin.children());
+				}
+				metricsListener.binsCreated(l, created[l], level.size());
+				level = next;
+			}
+		}
+		return children.get(0);
+	}
+
+	/**
+	 * Closes the open bins from the deepest level up to and including level,
+	 * attaching each to its parent. Bins under their breakLimit drop their children
+	 */
+	private static void closeLevels(TemporalTreeConfiguration[] levels, ZonedDateTime[] dates, long[] starts,
+			long[] ends, int[] froms, List<List<TemporalBinNode>> children, int level, int toIndex) {
+		for (int l = levels.length - 1; l >= level; l--) {
+			TemporalTreeConfiguration configuration = levels[l];
+			List<TemporalBinNode> binChildren = l < levels.length - 1
+					&& toIndex - froms[l] >= configuration.breakLimit() ? children.get(l + 1) : List.of();
+			children.get(l).add(new TemporalBinNode(configuration, dates[l], starts[l], ends[l], froms[l], toIndex,
+					binChildren));
+		}
+	}
+
+	/**
+	 * Reports the records and break downs at every depth of a tree of bins, the
+	 * bins created are reported by the binner
+	 * 
+	 * @param bins
+	 * @param metricsListener
+	 */
+	static void reportLevels(List<TemporalBinNode> bins, TreeMetricsListener metricsListener) {
+		List<TemporalBinNode> level = bins;
+		for (int depth = 0; !level.isEmpty(); depth++) {
+			List<TemporalBinNode> next = new ArrayList<>();
+			long records = 0;
+			long breakDowns = 0;
+			for (TemporalBinNode bin : level) {
+				records += bin.count();
+				if (!bin.children().isEmpty()) {
+					breakDowns++;
+					next.addAll(bin.children());
+				}
+			}
+			metricsListener.recordsBinned(depth, records);
+			metricsListener.breakDowns(depth, breakDowns);
+			level = next;
+		}
+	}
+
+	/**
+	 * Flattens the configuration chain into the levels that may be generated
+	 * 
+	 * @param configuration
+	 * @return
+	 */
+	static TemporalTreeConfiguration[] getLevels(TemporalTreeConfiguration configuration) {
+		List<TemporalTreeConfiguration> levels = new ArrayList<>();
+		TemporalTreeConfiguration level = configuration;
+		levels.add(level);
+		while (level.breakLimit() != -1 && level.breakConfiguration() != null) {
+			level = level.breakConfiguration();
+			levels.add(level);
+		}
+		return levels.toArray(new TemporalTreeConfiguration[0]);
+	}
+}
@@ -0,0 +1,180 @@
+package org.temporaltree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Combines temporal trees built per shard. Sorted record sources are merged
+ * k-way into a single sorted iterator for the iterator variants of
+ * TreeGenerator, and aggregate trees built with the same configuration and
+ * zone are merged bin by bin, so a combined overview costs the number of bins
+ * rather than the number of records
+ */
+public class TemporalTreeMerger {
+
+    private TemporalTreeMerger() {
+    }
+
+    /**
+     * Merges sorted sources into one sorted iterator, records with equal
+     * timestamps are taken from the earlier source first
+     * 
+     * @param sources             sorted sources
+     * @param epochMillisAccessor
+     * @return
+     */
+    public static <T> Iterator<T> merge(List<? extends Iterator<T>> sources,
+            EpochMillisAccessor<T> epochMillisAccessor) {
+        return new MergeIterator<>(sources, epochMillisAccessor);
+    }
+
+    private static class MergeIterator<T> implements Iterator<T> {
+        private final EpochMillisAccessor<T> epochMillisAccessor;
+        private final PriorityQueue<Head<T>> queue = new PriorityQueue<>(
+                Comparator.<Head<T>>comparingLong(head -> head.key).thenComparingInt(head -> head.index));
+
+        private static class Head<T> {
+            private final int index;
+            private final Iterator<T> source;
+            private long key;
+            private T record;
+
+            Head(int index, Iterator<T> source) {
+                this.index = index;
+                this.source = source;
+            }
+        }
+
+        MergeIterator(List<? extends Iterator<T>> sources, EpochMillisAccessor<T> epochMillisAccessor) {
+            this.epochMillisAccessor = epochMillisAccessor;
+            for (int i = 0; i < sources.size(); i++) {
+                Head<T> head = new Head<>(i, sources.get(i));
+                if (advance(head)) {
+                    queue.add(head);
+                }
+            }
+        }
+
+        private boolean advance(Head<T> head) {
+            if (!head.source.hasNext()) {
+                return false;
+            }
+            head.record = head.source.next();
+            head.key = epochMillisAccessor.getEpochMillis(head.record);
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Head<T> head = queue.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            T record = head.record;
+            if (advance(head)) {
+                queue.add(head);
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Merges aggregate trees built per shard with the same configuration and
+     * zone. Bins with the same start are combined, summing counts, taking the
+     * earliest first and latest last timestamps and combining reductions. A
+     * combined bin keeps children only when every shard holding the bin broke it
+     * down, as the records of a shard's undivided bin are not available
+     * 
+     * @param shards   top level aggregate nodes of each shard
+     * @param reducers the reducers the shards were built with, used to combine
+     *                 reductions by name, names must be unique
+     * @return merged top level nodes
+     */
+    public static List<AggregateNode> mergeAggregateTrees(List<List<AggregateNode>> shards,
+            List<? extends AggregateReducer<?>> reducers) {
+        Map<String, AggregateReducer.Reduction> reductions = new LinkedHashMap<>();
+        for (AggregateReducer<?> reducer : reducers) {
+            if (reductions.put(reducer.name(), reducer.reduction()) != null) {
+                throw new IllegalArgumentException("Duplicate reducer name: " + reducer.name());
+            }
+        }
+        return mergeLevel(shards, reductions);
+    }
+
+    private static List<AggregateNode> mergeLevel(List<List<AggregateNode>> shards,
+            Map<String, AggregateReducer.Reduction> reductions) {
+        List<AggregateNode> merged = new ArrayList<>();
+        int[] positions = new int[shards.size()];
+        while (true) {
+            // the next bin is the earliest unmerged bin of any shard
+            long startUtcMs = Long.MAX_VALUE;
+            for (int s = 0; s < shards.size(); s++) {
+                if (positions[s] < shards.get(s).size()) {
+                    startUtcMs = Math.min(startUtcMs, shards.get(s).get(positions[s]).startUtcMs());
+                }
+            }
+            if (startUtcMs == Long.MAX_VALUE) {
+                return merged;
+            }
+            List<AggregateNode> nodes = new ArrayList<>();
+            for (int s = 0; s < shards.size(); s++) {
+                List<AggregateNode> shard = shards.get(s);
+                if (positions[s] < shard.size() && shard.get(positions[s]).startUtcMs() == startUtcMs) {
+                    nodes.add(shard.get(positions[s]++));
+                }
+            }
+            merged.add(mergeNodes(nodes, reductions));
+        }
+    }
+
+    private static AggregateNode mergeNodes(List<AggregateNode> nodes,
+            Map<String, AggregateReducer.Reduction> reductions) {
+        AggregateNode first = nodes.get(0);
+        if (nodes.size() == 1) {
+            return first;
+        }
+        long count = 0;
+        long firstUtcMs = Long.MAX_VALUE;
+        long lastUtcMs = Long.MIN_VALUE;
+        boolean brokenDown = true;
+        List<List<AggregateNode>> children = new ArrayList<>();
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (AggregateNode node : nodes) {
+            if (!node.key().equals(first.key())) {
+                throw new IllegalArgumentException(
+                        "Bins starting at " + first.startUtcMs() + " have different keys, " + first.key() + " and "
+                                + node.key() + ", trees must share a configuration and zone");
+            }
+            if (!node.reductions().keySet().equals(first.reductions().keySet())) {
+                throw new IllegalArgumentException("Bins " + first.key() + " have different reductions, "
+                        + first.reductions().keySet() + " and " + node.reductions().keySet()
+                        + ", trees must be built with the same reducers");
+            }
+            count += node.count();
+            firstUtcMs = Math.min(firstUtcMs, node.firstUtcMs());
+            lastUtcMs = Math.max(lastUtcMs, node.lastUtcMs());
+            brokenDown &= !node.children().isEmpty();
+            children.add(node.children());
+            for (Map.Entry<String, Double> entry : node.reductions().entrySet()) {
+                AggregateReducer.Reduction reduction = reductions.get(entry.getKey());
+                if (reduction == null) {
+                    throw new IllegalArgumentException("No reducer named " + entry.getKey());
+                }
+                values.merge(entry.getKey(), entry.getValue(), reduction::combine);
+            }
+        }
+        return new AggregateNode(first.key(), first.title(), first.startUtcMs(), first.endUtcMs(), count,
+                firstUtcMs, lastUtcMs, values, brokenDown ? mergeLevel(children, reductions) : List.of());
+    }
+}
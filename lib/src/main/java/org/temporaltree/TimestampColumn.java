@@ -0,0 +1,54 @@
+package org.temporaltree;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Sorted column of utc epoch millisecond timestamps addressed by index, lets
+ * records be binned without materializing them
+ */
+public interface TimestampColumn {
+    int size();
+
+    long getEpochMillis(int index);
+
+    /**
+     * Views the timestamps of a list of records. The timestamps of a list without
+     * random access, such as a LinkedList, are read once in order
+     * 
+     * @param records
+     * @param epochMillisAccessor
+     * @return
+     */
+    static <T> TimestampColumn of(List<T> records, EpochMillisAccessor<T> epochMillisAccessor) {
+        if (!(records instanceof RandomAccess)) {
+            long[] timestamps = new long[records.size()];
+            int index = 0;
+            for (T record : records) {
+                timestamps[index++] = epochMillisAccessor.getEpochMillis(record);
+            }
+            return new TimestampColumn() {
+                @Override
+                public int size() {
+                    return timestamps.length;
+                }
+
+                @Override
+                public long getEpochMillis(int index) {
+                    return timestamps[index];
+                }
+            };
+        }
+        return new TimestampColumn() {
+            @Override
+            public int size() {
+                return records.size();
+            }
+
+            @Override
+            public long getEpochMillis(int index) {
+                return epochMillisAccessor.getEpochMillis(records.get(index));
+            }
+        };
+    }
+}
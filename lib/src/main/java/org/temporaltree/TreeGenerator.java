@@ -1,74 +1,107 @@
 package org.temporaltree;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.CountingOutputStream;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.ChronoField;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class TreeGenerator<T> {
 
+    private static final long DEFAULT_CACHE_SIZE = 100_000;
+    private static final int DEFAULT_LEAF_BATCH_SIZE = 1_000;
     private static final TemporalTreeConfiguration DEFAULT_TREE_CONFIGURATION = initDefaultTreeConfiguration();
     private static final DateTimeFormatter hourStartFormat = DateTimeFormatter.ofPattern("hh:mm");
     private static final DateTimeFormatter hourEndFormat = DateTimeFormatter.ofPattern("hh:mm a z");
     private static final DateTimeFormatter minuteStartFormat = DateTimeFormatter.ofPattern("hh:mm:ss");
     private static final DateTimeFormatter minuteEndFormat = DateTimeFormatter.ofPattern("hh:mm:ss a z");
 
+    private final TreeMetricsListener metricsListener;
+
+    public TreeGenerator() {
+        this(TreeMetricsListener.NOOP);
+    }
+
     /**
-     * Initializes the default temporal tree configuration
+     * Constructor reporting build metrics of the temporal tree methods to a
+     * listener
+     * 
+     * @param metricsListener
+     */
+    public TreeGenerator(TreeMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Initializes the default temporal tree configuration, keys and titles are
+     * cached as sibling trees over the same period regenerate the same nodes
      * 
      * @return
      */
     private static TemporalTreeConfiguration initDefaultTreeConfiguration() {
-        DateTimeFormatter minuteKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm z");
-        DateTimeFormatter hourKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH z");
-        DateTimeFormatter dayKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         DateTimeFormatter dayTitleFormatter = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy");
 
         TemporalTreeConfiguration minuteConfiguration = new TemporalTreeConfiguration(ChronoUnit.MINUTES,
-                ChronoField.MINUTE_OF_HOUR, new DateKeyGenerator() {
+                ChronoField.MINUTE_OF_HOUR, new CachingDateKeyGenerator(new DateKeyGenerator() {
                     public String generateKey(ZonedDateTime zonedDateTime) {
-                        return minuteKeyFormatter.format(zonedDateTime);
+                        return DateKeyFormats.formatMinute(zonedDateTime);
                     }
-                }, new DateTitleGenerator() {
+                }, DEFAULT_CACHE_SIZE), new CachingDateTitleGenerator(new DateTitleGenerator() {
                     public String generateTitle(ZonedDateTime zonedDateTime) {
                         ZonedDateTime next = DateBinner.getNextMinute(zonedDateTime).minusSeconds(1);
                         return generateMinuteLabel(zonedDateTime, next);
                     }
-                }, -1, null);
+                }, DEFAULT_CACHE_SIZE), -1, null);
 
         TemporalTreeConfiguration hourConfiguration = new TemporalTreeConfiguration(ChronoUnit.HOURS,
-                ChronoField.HOUR_OF_DAY, new DateKeyGenerator() {
+                ChronoField.HOUR_OF_DAY, new CachingDateKeyGenerator(new DateKeyGenerator() {
                     public String generateKey(ZonedDateTime zonedDateTime) {
-                        return hourKeyFormatter.format(zonedDateTime);
+                        return DateKeyFormats.formatHour(zonedDateTime);
                     }
-                }, new DateTitleGenerator() {
+                }, DEFAULT_CACHE_SIZE), new CachingDateTitleGenerator(new DateTitleGenerator() {
                     public String generateTitle(ZonedDateTime zonedDateTime) {
                         ZonedDateTime next = DateBinner.getNextHour(zonedDateTime).minusMinutes(1);
                         return generateHourLabel(zonedDateTime, next);
                     }
-                }, 240, minuteConfiguration);
+                }, DEFAULT_CACHE_SIZE), 240, minuteConfiguration);
 
         TemporalTreeConfiguration dateConfiguration = new TemporalTreeConfiguration(ChronoUnit.DAYS,
-                ChronoField.EPOCH_DAY, new DateKeyGenerator() {
+                ChronoField.EPOCH_DAY, new CachingDateKeyGenerator(new DateKeyGenerator() {
                     public String generateKey(ZonedDateTime zonedDateTime) {
-                        return dayKeyFormatter.format(zonedDateTime);
+                        return DateKeyFormats.formatDay(zonedDateTime);
                     }
-                }, new DateTitleGenerator() {
+                }, DEFAULT_CACHE_SIZE), new CachingDateTitleGenerator(new DateTitleGenerator() {
                     public String generateTitle(ZonedDateTime zonedDateTime) {
                         return dayTitleFormatter.format(zonedDateTime);
                     }
-                }, 96, hourConfiguration);
+                }, DEFAULT_CACHE_SIZE), 96, hourConfiguration);
 
         return dateConfiguration;
     }
 
+    /**
+     * Returns the default day, hour and minute temporal tree configuration
+     * 
+     * @return
+     */
+    public static TemporalTreeConfiguration getDefaultTreeConfiguration() {
+        return DEFAULT_TREE_CONFIGURATION;
+    }
+
     /**
      * Generates an hour label
      * 
@@ -90,74 +123,851 @@ public class TreeGenerator<T> {
     };
 
     public ObjectNode generateIndexTree(List<T> records, LeafGenerator<T> leafGenerator, int startIdx, int endIdx) {
-        if (endIdx - startIdx <= 100) {
-            StringBuilder keyBuilder = new StringBuilder();
-            keyBuilder.append(startIdx);
-            keyBuilder.append("-");
-            keyBuilder.append(Math.max(endIdx, 0));
-            String key = keyBuilder.toString();
-            ObjectNode node = TreeUtils.createNodeWithChildren(key, key);
-            for (int i = startIdx; i <= endIdx; i++) {
-                ObjectNode leaf = leafGenerator.generateLeaf(records.get(i));
-                if (leaf != null) {
-                    ((ArrayNode) node.get("children")).add(leaf);
+        checkIndexRange(records, startIdx, endIdx);
+        return generateIndexTree(new IndexTree<>(records, IndexTreeConfiguration.POWERS_OF_TEN), leafGenerator,
+                startIdx, endIdx + 1);
+    };
+
+    /**
+     * Checks the inclusive index range of an index tree, an empty range ends at
+     * startIdx - 1
+     */
+    private static void checkIndexRange(List<?> records, int startIdx, int endIdx) {
+        if (startIdx < 0 || endIdx >= records.size() || startIdx > endIdx + 1) {
+            throw new IllegalArgumentException("Index range " + startIdx + "-" + endIdx + " out of range for "
+                    + records.size() + " records, endIdx must be at most " + (records.size() - 1));
+        }
+    };
+
+    public ArrayNode generateTemporalTreeChildren(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration) {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        // bin every level of the tree in a single pass over the records
+        return generateTemporalTreeChildren(indexedRecords,
+                bin(indexedRecords, epochMillisAccessor, zoneId, configuration), leafGenerator);
+    };
+
+    /**
+     * Bins the records, reporting the binning time when metrics are enabled
+     */
+    private List<TemporalBinNode> bin(List<T> records, EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId,
+            TemporalTreeConfiguration configuration) {
+        return bin(TimestampColumn.of(records, epochMillisAccessor), zoneId, configuration);
+    };
+
+    private List<TemporalBinNode> bin(TimestampColumn timestamps, ZoneId zoneId,
+            TemporalTreeConfiguration configuration) {
+        long start = metricsListener != TreeMetricsListener.NOOP ? System.nanoTime() : 0;
+        List<TemporalBinNode> bins = TemporalTreeBinner.bin(timestamps, 0, timestamps.size(), zoneId, configuration,
+                metricsListener);
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.BINNING, System.nanoTime() - start);
+        }
+        return bins;
+    };
+
+    /**
+     * Column variant of generateTemporalTreeChildren, records are binned by the
+     * timestamps of the column and only read from the records list, typically a
+     * lazily resolved view such as OffHeapTimestampColumn.records, to generate
+     * leaves
+     * 
+     * @param timestamps        sorted timestamps
+     * @param records           records in the same order as the timestamps
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(TimestampColumn timestamps, List<T> records,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration) {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        return generateTemporalTreeChildren(records, bin(timestamps, zoneId, configuration), leafGenerator);
+    };
+
+    /**
+     * Generates the temporal tree children for bins produced by the
+     * TemporalTreeBinner
+     * 
+     * @param records       the sorted records the bins were generated from
+     * @param bins
+     * @param leafGenerator
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(List<T> records, List<TemporalBinNode> bins,
+            LeafGenerator<T> leafGenerator) {
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        ArrayNode children = TreeUtils.OBJECT_MAPPER.createArrayNode();
+        BuildMetrics<T> metrics = createBuildMetrics(leafGenerator);
+        BulkLeafGenerator<T> bulkLeafGenerator = metrics != null ? metrics : BulkLeafGenerator.of(leafGenerator);
+        for (TemporalBinNode bin : bins) {
+            children.add(generateTemporalNode(indexedRecords, bin, bulkLeafGenerator, Integer.MAX_VALUE,
+                    Integer.MAX_VALUE, metrics));
+        }
+        if (metrics != null) {
+            TemporalTreeBinner.reportLevels(bins, metricsListener);
+            metrics.report();
+        }
+        return children;
+    };
+
+    /**
+     * Generates temporal tree children with bounded fan-out, the granularity of
+     * every node's children is chosen by the AdaptiveTreeBinner
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param configuration
+     * @return
+     */
+    public ArrayNode generateAdaptiveTreeChildren(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, AdaptiveTreeConfiguration configuration) {
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        long start = metricsListener != TreeMetricsListener.NOOP ? System.nanoTime() : 0;
+        List<TemporalBinNode> bins = AdaptiveTreeBinner.bin(indexedRecords, epochMillisAccessor, zoneId,
+                configuration);
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.BINNING, System.nanoTime() - start);
+        }
+        return generateTemporalTreeChildren(indexedRecords, bins, leafGenerator);
+    };
+
+    /**
+     * Aggregate variant of generateTemporalTreeChildren, produces the same tree
+     * structure with each node holding its record count, first and last
+     * timestamps and reduced values. No leaves are generated
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param zoneId
+     * @param treeConfiguration
+     * @param reducers            reductions computed for every node, may be empty,
+     *                            names must be unique
+     * @return
+     */
+    public List<AggregateNode> generateAggregateTreeChildren(List<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration,
+            List<AggregateReducer<T>> reducers) {
+        Set<String> names = new HashSet<>();
+        for (AggregateReducer<T> reducer : reducers) {
+            if (!names.add(reducer.name())) {
+                throw new IllegalArgumentException("Duplicate reducer name: " + reducer.name());
+            }
+        }
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        TimestampColumn timestamps = TimestampColumn.of(indexedRecords, epochMillisAccessor);
+        List<TemporalBinNode> bins = bin(timestamps, zoneId, configuration);
+        List<AggregateNode> nodes = generateAggregateNodes(timestamps, indexedRecords, bins, reducers);
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            TemporalTreeBinner.reportLevels(bins, metricsListener);
+            metricsListener.nodesProduced(countNodes(bins));
+        }
+        return nodes;
+    };
+
+    /**
+     * Generates a count only aggregate tree over a column of timestamps, such as
+     * a MappedTemporalIndex slice
+     * 
+     * @param timestamps        sorted timestamps
+     * @param zoneId
+     * @param treeConfiguration
+     * @return
+     */
+    public static List<AggregateNode> generateAggregateTreeChildren(TimestampColumn timestamps, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        List<TemporalBinNode> bins = TemporalTreeBinner.bin(timestamps, 0, timestamps.size(), zoneId, configuration);
+        return generateAggregateNodes(timestamps, null, bins, List.of());
+    };
+
+    private static long countNodes(List<TemporalBinNode> bins) {
+        long count = bins.size();
+        for (TemporalBinNode bin : bins) {
+            count += countNodes(bin.children());
+        }
+        return count;
+    };
+
+    private static <T> List<AggregateNode> generateAggregateNodes(TimestampColumn timestamps, List<T> records,
+            List<TemporalBinNode> bins, List<AggregateReducer<T>> reducers) {
+        List<AggregateNode> nodes = new ArrayList<>(bins.size());
+        for (TemporalBinNode bin : bins) {
+            List<AggregateNode> children = generateAggregateNodes(timestamps, records, bin.children(), reducers);
+            Map<String, Double> reductions = reducers.isEmpty() ? Map.of() : new LinkedHashMap<>();
+            for (AggregateReducer<T> reducer : reducers) {
+                double value;
+                if (children.isEmpty()) {
+                    value = reducer.reduce(records, bin.fromIndex(), bin.toIndex());
+                } else {
+                    // divided bins combine the values already reduced for their children
+                    value = children.get(0).reductions().get(reducer.name());
+                    for (int i = 1; i < children.size(); i++) {
+                        value = reducer.reduction().combine(value, children.get(i).reductions().get(reducer.name()));
+                    }
                 }
+                reductions.put(reducer.name(), value);
+            }
+            nodes.add(new AggregateNode(bin.generateKey(), bin.generateTitle(), bin.startUtcMs(), bin.endUtcMs(),
+                    bin.count(), timestamps.getEpochMillis(bin.fromIndex()),
+                    timestamps.getEpochMillis(bin.toIndex() - 1), reductions, children));
+        }
+        return nodes;
+    };
+
+    /**
+     * Parallel variant of generateTemporalTreeChildren. Top level bins, and broken
+     * down bins holding at least parallelThreshold records, are binned and
+     * generated as fork join tasks. Children are assembled in order so the output
+     * is identical to the sequential path. The leaf generator must be thread safe
+     * 
+     * @param records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration
+     * @param forkJoinPool
+     * @param parallelThreshold   minimum number of records for a bin to be split
+     *                            into parallel tasks
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration,
+            ForkJoinPool forkJoinPool, int parallelThreshold) {
+        return generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, zoneId, treeConfiguration,
+                forkJoinPool, parallelThreshold, DEFAULT_LEAF_BATCH_SIZE);
+    };
+
+    /**
+     * Parallel variant of generateTemporalTreeChildren with an explicit leaf batch
+     * size. Leaves of undivided bins holding at least parallelThreshold records
+     * are generated in parallel batches of leafBatchSize records
+     * 
+     * @param records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration
+     * @param forkJoinPool
+     * @param parallelThreshold   minimum number of records for a bin to be split
+     *                            into parallel tasks
+     * @param leafBatchSize       records per parallel leaf generation task
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration,
+            ForkJoinPool forkJoinPool, int parallelThreshold, int leafBatchSize) {
+        if (leafBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid leaf batch size: " + leafBatchSize);
+        }
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        if (records.size() < parallelThreshold) {
+            return generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, zoneId, configuration);
+        }
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        BuildMetrics<T> metrics = createBuildMetrics(leafGenerator);
+        BulkLeafGenerator<T> bulkLeafGenerator = metrics != null ? metrics : BulkLeafGenerator.of(leafGenerator);
+        List<TemporalBinNode> bins = new ArrayList<>();
+        ArrayNode result = forkJoinPool.invoke(new RecursiveTask<ArrayNode>() {
+            @Override
+            protected ArrayNode compute() {
+                // the top level bins are independent, so bin and generate each one in its own task
+                long start = metrics != null ? System.nanoTime() : 0;
+                List<TemporalBinNode> ranges = DateBinner.placeNonEmptyRecordRanges(configuration, indexedRecords,
+                        epochMillisAccessor, zoneId);
+                if (metrics != null) {
+                    metrics.binningNanos.add(System.nanoTime() - start);
+                }
+                List<TemporalNodeTask> tasks = new ArrayList<>();
+                for (TemporalBinNode range : ranges) {
+                    tasks.add(new TemporalNodeTask(indexedRecords, epochMillisAccessor, bulkLeafGenerator, zoneId,
+                            configuration, range, parallelThreshold, leafBatchSize, metrics));
+                }
+                ArrayNode children = TreeUtils.OBJECT_MAPPER.createArrayNode();
+                for (TemporalNodeTask task : ForkJoinTask.invokeAll(tasks)) {
+                    children.add(task.join());
+                    bins.add(task.bin);
+                }
+                return children;
+            }
+        });
+        if (metrics != null) {
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.BINNING, metrics.binningNanos.sum());
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.BOUNDARY_CALCULATION,
+                    metrics.boundaryNanos.sum());
+            TemporalTreeBinner.reportLevels(bins, metricsListener);
+            metrics.report();
+        }
+        return result;
+    };
+
+    /**
+     * Generates the node for a bin, children of bins holding at least
+     * parallelThreshold records are generated as fork join tasks and leaves of
+     * larger bins are generated in parallel batches of leafBatchSize records
+     */
+    private ObjectNode generateTemporalNode(List<T> records, TemporalBinNode bin,
+            BulkLeafGenerator<T> leafGenerator, int parallelThreshold, int leafBatchSize, BuildMetrics<T> metrics) {
+        ObjectNode node = metrics != null ? metrics.createNode(bin)
+                : TreeUtils.createNodeWithChildren(bin.generateKey(), bin.generateTitle());
+        ArrayNode children = (ArrayNode) node.get("children");
+        if (bin.children().isEmpty()) {
+            if (bin.count() >= parallelThreshold) {
+                List<LeafBatchTask> tasks = new ArrayList<>();
+                for (int i = bin.fromIndex(); i < bin.toIndex(); i += leafBatchSize) {
+                    tasks.add(new LeafBatchTask(records.subList(i, Math.min(bin.toIndex(), i + leafBatchSize)),
+                            leafGenerator));
+                }
+                for (LeafBatchTask task : ForkJoinTask.invokeAll(tasks)) {
+                    children.addAll(task.join());
+                }
+            } else {
+                children.addAll(leafGenerator.generateLeaves(bin.records(records)));
+            }
+        } else if (bin.count() >= parallelThreshold) {
+            List<TemporalNodeTask> tasks = new ArrayList<>();
+            for (TemporalBinNode child : bin.children()) {
+                tasks.add(new TemporalNodeTask(records, child, leafGenerator, parallelThreshold, leafBatchSize,
+                        metrics));
+            }
+            for (TemporalNodeTask task : ForkJoinTask.invokeAll(tasks)) {
+                children.add(task.join());
             }
-            return node;
         } else {
-            StringBuilder keyBuilder = new StringBuilder();
-            keyBuilder.append(startIdx);
-            keyBuilder.append("-");
-            keyBuilder.append(Math.max(endIdx, 0));
-            String key = keyBuilder.toString();
-            ObjectNode node = TreeUtils.createNodeWithChildren(key, key);
-            int factor = 10;
-            while ((endIdx - startIdx) / factor > 10) {
-                factor *= 10;
+            for (TemporalBinNode child : bin.children()) {
+                children.add(generateTemporalNode(records, child, leafGenerator, parallelThreshold, leafBatchSize,
+                        metrics));
             }
-            for (int i = startIdx; i < Math.min(records.size(), endIdx); i += factor) {
-                ((ArrayNode) node.get("children")).add(
-                        generateIndexTree(records, leafGenerator, i, Math.min(records.size() - 1, i + factor - 1)));
+        }
+        return node;
+    };
+
+    private BuildMetrics<T> createBuildMetrics(LeafGenerator<T> leafGenerator) {
+        return metricsListener != TreeMetricsListener.NOOP
+                ? new BuildMetrics<>(BulkLeafGenerator.of(leafGenerator), metricsListener)
+                : null;
+    }
+
+    /**
+     * Accumulates the key, title and leaf generation timings of a build, wrapping
+     * the leaf generator to time and count leaves. Shared by the tasks of parallel
+     * builds, which also accumulate their binning timings
+     */
+    private static class BuildMetrics<T> implements BulkLeafGenerator<T> {
+        private final BulkLeafGenerator<T> leafGenerator;
+        private final TreeMetricsListener metricsListener;
+        private final LongAdder binningNanos = new LongAdder();
+        private final LongAdder boundaryNanos = new LongAdder();
+        private final LongAdder keyNanos = new LongAdder();
+        private final LongAdder titleNanos = new LongAdder();
+        private final LongAdder leafNanos = new LongAdder();
+        private final LongAdder leaves = new LongAdder();
+        private final LongAdder nodes = new LongAdder();
+
+        // reports the bins of each task and accumulates their boundary calculation time
+        private final TreeMetricsListener binningListener = new TreeMetricsListener() {
+            @Override
+            public void phaseCompleted(Phase phase, long nanos) {
+                boundaryNanos.add(nanos);
+            }
+
+            @Override
+            public void binsCreated(int level, long created, long nonEmpty) {
+                metricsListener.binsCreated(level, created, nonEmpty);
+            }
+        };
+
+        BuildMetrics(BulkLeafGenerator<T> leafGenerator, TreeMetricsListener metricsListener) {
+            this.leafGenerator = leafGenerator;
+            this.metricsListener = metricsListener;
+        }
+
+        @Override
+        public ObjectNode generateLeaf(T record) {
+            return leafGenerator.generateLeaf(record);
+        }
+
+        @Override
+        public List<ObjectNode> generateLeaves(List<T> records) {
+            long start = System.nanoTime();
+            List<ObjectNode> generated = leafGenerator.generateLeaves(records);
+            leafNanos.add(System.nanoTime() - start);
+            leaves.add(generated.size());
+            return generated;
+        }
+
+        ObjectNode createNode(TemporalBinNode bin) {
+            long start = System.nanoTime();
+            String key = bin.generateKey();
+            long keyEnd = System.nanoTime();
+            String title = bin.generateTitle();
+            keyNanos.add(keyEnd - start);
+            titleNanos.add(System.nanoTime() - keyEnd);
+            nodes.increment();
+            return TreeUtils.createNodeWithChildren(key, title);
+        }
+
+        void report() {
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.KEY_GENERATION, keyNanos.sum());
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.TITLE_GENERATION, titleNanos.sum());
+            reportLeaves();
+        }
+
+        /**
+         * Reports the leaf generation time and the leaves and nodes counted, for
+         * builds without generated keys and titles
+         */
+        void reportLeaves() {
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.LEAF_GENERATION, leafNanos.sum());
+            metricsListener.leavesGenerated(leaves.sum());
+            metricsListener.nodesProduced(nodes.sum());
+        }
+    }
+
+    /**
+     * Fork join task generating the leaves for a batch of records
+     */
+    @SuppressWarnings("serial")
+    private class LeafBatchTask extends RecursiveTask<List<ObjectNode>> {
+        private final List<T> records;
+        private final BulkLeafGenerator<T> leafGenerator;
+
+        LeafBatchTask(List<T> records, BulkLeafGenerator<T> leafGenerator) {
+            this.records = records;
+            this.leafGenerator = leafGenerator;
+        }
+
+        @Override
+        protected List<ObjectNode> compute() {
+            return leafGenerator.generateLeaves(records);
+        }
+    }
+
+    /**
+     * Fork join task generating the node of a bin, top level tasks are given a
+     * range and bin it in the task
+     */
+    @SuppressWarnings("serial")
+    private class TemporalNodeTask extends RecursiveTask<ObjectNode> {
+        private final List<T> records;
+        private final BulkLeafGenerator<T> leafGenerator;
+        private final int parallelThreshold;
+        private final int leafBatchSize;
+        private final BuildMetrics<T> metrics;
+        private TemporalBinNode bin;
+        private EpochMillisAccessor<T> epochMillisAccessor;
+        private ZoneId zoneId;
+        private TemporalTreeConfiguration configuration;
+        private TemporalBinNode range;
+
+        TemporalNodeTask(List<T> records, TemporalBinNode bin, BulkLeafGenerator<T> leafGenerator,
+                int parallelThreshold, int leafBatchSize, BuildMetrics<T> metrics) {
+            this.records = records;
+            this.bin = bin;
+            this.leafGenerator = leafGenerator;
+            this.parallelThreshold = parallelThreshold;
+            this.leafBatchSize = leafBatchSize;
+            this.metrics = metrics;
+        }
+
+        TemporalNodeTask(List<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+                BulkLeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration configuration,
+                TemporalBinNode range, int parallelThreshold, int leafBatchSize, BuildMetrics<T> metrics) {
+            this(records, null, leafGenerator, parallelThreshold, leafBatchSize, metrics);
+            this.epochMillisAccessor = epochMillisAccessor;
+            this.zoneId = zoneId;
+            this.configuration = configuration;
+            this.range = range;
+        }
+
+        @Override
+        protected ObjectNode compute() {
+            if (bin == null) {
+                long start = metrics != null ? System.nanoTime() : 0;
+                bin = TemporalTreeBinner.bin(TimestampColumn.of(records, epochMillisAccessor), range.fromIndex(),
+                        range.toIndex(), zoneId, configuration,
+                        metrics != null ? metrics.binningListener : TreeMetricsListener.NOOP).get(0);
+                if (metrics != null) {
+                    metrics.binningNanos.add(System.nanoTime() - start);
+                }
             }
-            return node;
+            return generateTemporalNode(records, bin, leafGenerator, parallelThreshold, leafBatchSize, metrics);
         }
+    }
+
+    /**
+     * Streaming variant of generateIndexTree, writes the index tree directly to the
+     * JsonGenerator without building the tree in memory
+     * 
+     * @param generator
+     * @param records
+     * @param leafWriter
+     * @param startIdx
+     * @param endIdx
+     * @throws IOException
+     */
+    public void writeIndexTree(JsonGenerator generator, List<T> records, LeafWriter<T> leafWriter, int startIdx,
+            int endIdx) throws IOException {
+        checkIndexRange(records, startIdx, endIdx);
+        writeIndexTree(generator, new IndexTree<>(records, IndexTreeConfiguration.POWERS_OF_TEN), leafWriter,
+                startIdx, endIdx + 1);
     };
 
-    public ArrayNode generateTemporalTreeChildren(List<T> records, DateAccessor<T> dateAccessor,
+    /**
+     * Writes the index tree to an output stream, the stream is flushed but not
+     * closed
+     * 
+     * @param outputStream
+     * @param records
+     * @param leafWriter
+     * @param startIdx
+     * @param endIdx
+     * @throws IOException
+     */
+    public void writeIndexTree(OutputStream outputStream, List<T> records, LeafWriter<T> leafWriter, int startIdx,
+            int endIdx) throws IOException {
+        write(outputStream, generator -> writeIndexTree(generator, records, leafWriter, startIdx, endIdx));
+    };
+
+    /**
+     * Generates an index tree with an explicit fan-out and leaf chunk size
+     * 
+     * @param records
+     * @param leafGenerator
+     * @param indexTreeConfiguration
+     * @return root node
+     */
+    public ObjectNode generateIndexTree(List<T> records, LeafGenerator<T> leafGenerator,
+            IndexTreeConfiguration indexTreeConfiguration) {
+        return generateIndexTree(new IndexTree<>(records, indexTreeConfiguration), leafGenerator, 0, records.size());
+    }
+
+    private ObjectNode generateIndexTree(IndexTree<T> indexTree, LeafGenerator<T> leafGenerator, int fromIndex,
+            int toIndex) {
+        BuildMetrics<T> metrics = createBuildMetrics(leafGenerator);
+        if (metrics == null) {
+            return indexTree.generate(fromIndex, toIndex, leafGenerator);
+        }
+        ObjectNode root = indexTree.generate(fromIndex, toIndex, metrics);
+        metrics.nodes.add(indexTree.countNodes(toIndex - fromIndex));
+        metrics.reportLeaves();
+        return root;
+    }
+
+    /**
+     * Streaming variant of generateIndexTree with an explicit fan-out and leaf
+     * chunk size, only the current path of the tree is held in memory
+     * 
+     * @param generator
+     * @param records
+     * @param leafWriter
+     * @param indexTreeConfiguration
+     * @throws IOException
+     */
+    public void writeIndexTree(JsonGenerator generator, List<T> records, LeafWriter<T> leafWriter,
+            IndexTreeConfiguration indexTreeConfiguration) throws IOException {
+        writeIndexTree(generator, new IndexTree<>(records, indexTreeConfiguration), leafWriter, 0, records.size());
+    }
+
+    private void writeIndexTree(JsonGenerator generator, IndexTree<T> indexTree, LeafWriter<T> leafWriter,
+            int fromIndex, int toIndex) throws IOException {
+        indexTree.write(generator, leafWriter, fromIndex, toIndex);
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            metricsListener.leavesGenerated(toIndex - fromIndex);
+            metricsListener.nodesProduced(indexTree.countNodes(toIndex - fromIndex));
+        }
+    }
+
+    /**
+     * Writes an index tree with an explicit fan-out and leaf chunk size to an
+     * output stream, the stream is flushed but not closed
+     * 
+     * @param outputStream
+     * @param records
+     * @param leafWriter
+     * @param indexTreeConfiguration
+     * @throws IOException
+     */
+    public void writeIndexTree(OutputStream outputStream, List<T> records, LeafWriter<T> leafWriter,
+            IndexTreeConfiguration indexTreeConfiguration) throws IOException {
+        write(outputStream, generator -> writeIndexTree(generator, records, leafWriter, indexTreeConfiguration));
+    }
+
+    /**
+     * Streaming variant of generateTemporalTreeChildren, writes the children array
+     * directly to the JsonGenerator so only the current branch of the tree is held
+     * in memory
+     * 
+     * @param generator
+     * @param records
+     * @param epochMillisAccessor
+     * @param leafWriter
+     * @param zoneId
+     * @param treeConfiguration
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(JsonGenerator generator, List<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafWriter<T> leafWriter, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) throws IOException {
+        generator.writeStartArray();
+        writeTemporalTreeNodes(generator, records, epochMillisAccessor, leafWriter, zoneId, treeConfiguration);
+        generator.writeEndArray();
+    };
+
+    /**
+     * Writes the temporal tree children array to an output stream, the stream is
+     * flushed but not closed
+     * 
+     * @param outputStream
+     * @param records
+     * @param epochMillisAccessor
+     * @param leafWriter
+     * @param zoneId
+     * @param treeConfiguration
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(OutputStream outputStream, List<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafWriter<T> leafWriter, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) throws IOException {
+        write(outputStream, generator -> writeTemporalTreeChildren(generator, records, epochMillisAccessor, leafWriter,
+                zoneId, treeConfiguration));
+    };
+
+    /**
+     * Iterator variant of generateTemporalTreeChildren, the sorted records are
+     * consumed in a single pass so they can come from a cursor or reader. The
+     * returned tree holds every leaf, use writeTemporalTreeChildren to bound
+     * memory
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(Iterator<T> records, EpochMillisAccessor<T> epochMillisAccessor,
             LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration) {
         TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
                 : DEFAULT_TREE_CONFIGURATION;
+        BuildMetrics<T> metrics = createBuildMetrics(leafGenerator);
+        BulkLeafGenerator<T> bulkLeafGenerator = metrics != null ? metrics : BulkLeafGenerator.of(leafGenerator);
         ArrayNode children = TreeUtils.OBJECT_MAPPER.createArrayNode();
-        if (records.size() > 0) {
-            // determine datetime boundary for records provided
-            Instant startDatetimeUtc = dateAccessor.getDateTime(records.get(0));
-            Instant endDatetimeUtc = dateAccessor.getDateTime(records.get(records.size() - 1));
-
-            DateBinner<T> dateBinner = new DateBinner<>(configuration.timeUnit(), configuration.timeField(),
-                    startDatetimeUtc, endDatetimeUtc, zoneId);
-            dateBinner.placeRecords(records, dateAccessor);
-
-            // iterate over bins, filtering out bins without records, and determine if leafs
-            // should be generated or if the bins need to be broken down further
-            dateBinner.getBins().stream().filter(bin -> bin.records().size() > 0).forEach(bin -> {
-                if (configuration.breakLimit() != -1 && bin.records().size() >= configuration.breakLimit()) {
-                    TemporalTreeConfiguration childConfiguration = configuration.breakConfiguration();
-                    ObjectNode node = TreeUtils.createNodeWithChildren(
-                            configuration.keyGenerator().generateKey(bin.date()),
-                            configuration.titleGenerator().generateTitle(bin.date()));
-                    ((ArrayNode) node.get("children")).addAll(generateTemporalTreeChildren(bin.records(),
-                            dateAccessor, leafGenerator, zoneId, childConfiguration));
-                    children.add(node);
-                } else {
-                    ObjectNode node = TreeUtils.createNodeWithChildren(
-                            configuration.keyGenerator().generateKey(bin.date()),
-                            configuration.titleGenerator().generateTitle(bin.date()));
-                    ((ArrayNode) node.get("children")).addAll(
-                            bin.records().stream().map(leafGenerator::generateLeaf).collect(Collectors.toList()));
-                    children.add(node);
-                }
-            });
+        Deque<ArrayNode> stack = new ArrayDeque<>();
+        stack.push(children);
+        StreamingTreeBinner<T> binner = new StreamingTreeBinner<>(epochMillisAccessor, zoneId, configuration,
+                new StreamingTreeBinner.Sink<T>() {
+                    public void nodeStart(String key, String title) {
+                        ObjectNode node = TreeUtils.createNodeWithChildren(key, title);
+                        stack.peek().add(node);
+                        stack.push((ArrayNode) node.get("children"));
+                    }
+
+                    public void leaves(List<T> leafRecords) {
+                        stack.peek().addAll(bulkLeafGenerator.generateLeaves(leafRecords));
+                    }
+
+                    public void nodeEnd() {
+                        stack.pop();
+                    }
+                });
+        try {
+            binner.bin(records);
+        } catch (IOException e) {
+            // the sink does not perform io
+            throw new IllegalStateException(e);
+        }
+        if (metrics != null) {
+            binner.report(metricsListener);
+            metricsListener.phaseCompleted(TreeMetricsListener.Phase.LEAF_GENERATION, metrics.leafNanos.sum());
         }
         return children;
     };
+
+    /**
+     * Stream variant of generateTemporalTreeChildren
+     * 
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration
+     * @return
+     */
+    public ArrayNode generateTemporalTreeChildren(Stream<T> records, EpochMillisAccessor<T> epochMillisAccessor,
+            LeafGenerator<T> leafGenerator, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration) {
+        return generateTemporalTreeChildren(records.iterator(), epochMillisAccessor, leafGenerator, zoneId,
+                treeConfiguration);
+    };
+
+    /**
+     * Streams the temporal tree children of sorted records consumed in a single
+     * pass, nodes are written as their bins open and leaves as soon as it is known
+     * whether their bin is broken down. Memory is bounded by the breakLimits of
+     * the configuration rather than the number of records
+     * 
+     * @param generator
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafWriter
+     * @param zoneId
+     * @param treeConfiguration
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(JsonGenerator generator, Iterator<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafWriter<T> leafWriter, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) throws IOException {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        generator.writeStartArray();
+        StreamingTreeBinner<T> binner = new StreamingTreeBinner<>(epochMillisAccessor, zoneId, configuration,
+                new StreamingTreeBinner.Sink<T>() {
+                    public void nodeStart(String key, String title) throws IOException {
+                        TreeUtils.writeNodeStart(generator, key, title);
+                    }
+
+                    public void leaves(List<T> leafRecords) throws IOException {
+                        for (T record : leafRecords) {
+                            leafWriter.writeLeaf(generator, record);
+                        }
+                    }
+
+                    public void nodeEnd() throws IOException {
+                        TreeUtils.writeNodeEnd(generator);
+                    }
+                });
+        binner.bin(records);
+        generator.writeEndArray();
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            binner.report(metricsListener);
+        }
+    };
+
+    /**
+     * Iterator variant of writeTemporalTreeChildren to an output stream, the
+     * stream is left open
+     * 
+     * @param outputStream
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafWriter
+     * @param zoneId
+     * @param treeConfiguration
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(OutputStream outputStream, Iterator<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafWriter<T> leafWriter, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) throws IOException {
+        write(outputStream, generator -> writeTemporalTreeChildren(generator, records, epochMillisAccessor, leafWriter,
+                zoneId, treeConfiguration));
+    };
+
+    /**
+     * Column variant of writeTemporalTreeChildren, records are only read to write
+     * leaves
+     * 
+     * @param generator
+     * @param timestamps        sorted timestamps
+     * @param records           records in the same order as the timestamps
+     * @param leafWriter
+     * @param zoneId
+     * @param treeConfiguration
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(JsonGenerator generator, TimestampColumn timestamps, List<T> records,
+            LeafWriter<T> leafWriter, ZoneId zoneId, TemporalTreeConfiguration treeConfiguration)
+            throws IOException {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        List<TemporalBinNode> bins = bin(timestamps, zoneId, configuration);
+        writeTemporalTreeChildren(generator, records, bins, leafWriter);
+        reportWritten(bins, timestamps.size());
+    };
+
+    /**
+     * Streams the temporal tree children for bins produced by the
+     * TemporalTreeBinner, records are only read for leaves
+     * 
+     * @param generator
+     * @param records    the sorted records the bins were generated from
+     * @param bins
+     * @param leafWriter
+     * @throws IOException
+     */
+    public void writeTemporalTreeChildren(JsonGenerator generator, List<T> records, List<TemporalBinNode> bins,
+            LeafWriter<T> leafWriter) throws IOException {
+        generator.writeStartArray();
+        writeTemporalTreeNodes(generator, TreeUtils.randomAccess(records), bins, leafWriter);
+        generator.writeEndArray();
+    };
+
+    private void writeTemporalTreeNodes(JsonGenerator generator, List<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafWriter<T> leafWriter, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration) throws IOException {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : DEFAULT_TREE_CONFIGURATION;
+        List<T> indexedRecords = TreeUtils.randomAccess(records);
+        List<TemporalBinNode> bins = bin(indexedRecords, epochMillisAccessor, zoneId, configuration);
+        writeTemporalTreeNodes(generator, indexedRecords, bins, leafWriter);
+        reportWritten(bins, records.size());
+    };
+
+    /**
+     * Reports the levels, nodes and leaves of bins written when metrics are enabled
+     */
+    private void reportWritten(List<TemporalBinNode> bins, long leaves) {
+        if (metricsListener != TreeMetricsListener.NOOP) {
+            TemporalTreeBinner.reportLevels(bins, metricsListener);
+            metricsListener.nodesProduced(countNodes(bins));
+            metricsListener.leavesGenerated(leaves);
+        }
+    };
+
+    private interface GeneratorWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Writes to an output stream through a JsonGenerator, reporting the writing
+     * time and bytes written when metrics are enabled
+     */
+    private void write(OutputStream outputStream, GeneratorWriter writer) throws IOException {
+        if (metricsListener == TreeMetricsListener.NOOP) {
+            try (JsonGenerator generator = TreeUtils.createGenerator(outputStream)) {
+                writer.write(generator);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        try (JsonGenerator generator = TreeUtils.createGenerator(countingOutputStream)) {
+            writer.write(generator);
+        }
+        metricsListener.phaseCompleted(TreeMetricsListener.Phase.WRITING, System.nanoTime() - start);
+        metricsListener.bytesWritten(countingOutputStream.getCount());
+    };
+
+    private void writeTemporalTreeNodes(JsonGenerator generator, List<T> records, List<TemporalBinNode> bins,
+            LeafWriter<T> leafWriter) throws IOException {
+        for (TemporalBinNode bin : bins) {
+            TreeUtils.writeNodeStart(generator, bin.generateKey(), bin.generateTitle());
+            if (!bin.children().isEmpty()) {
+                writeTemporalTreeNodes(generator, records, bin.children(), leafWriter);
+            } else {
+                for (int i = bin.fromIndex(); i < bin.toIndex(); i++) {
+                    leafWriter.writeLeaf(generator, records.get(i));
+                }
+            }
+            TreeUtils.writeNodeEnd(generator);
+        }
+    };
 }
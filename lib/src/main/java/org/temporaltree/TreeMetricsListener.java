@@ -0,0 +1,77 @@
+package org.temporaltree;
+
+/**
+ * Listener for metrics of tree builds. Every callback defaults to a no-op and
+ * builds using NOOP skip timing entirely, so instrumentation costs nothing
+ * unless a listener is supplied. Callbacks are made once per build phase or
+ * level rather than per record, and may come from multiple threads.
+ * <p>
+ * Every TreeGenerator build reports the nodes and leaves it produces, and
+ * WRITING and the bytes written when it writes to an OutputStream. Builds
+ * binning a list or column, sequential or parallel, also report BINNING,
+ * BOUNDARY_CALCULATION and the bins, records and break downs of every level,
+ * adaptive builds report BINNING and the records and break downs. Iterator and
+ * Stream builds bin while they generate, so they report the records and break
+ * downs of every level but no binning time. Index trees are not binned
+ */
+public interface TreeMetricsListener {
+    TreeMetricsListener NOOP = new TreeMetricsListener() {
+    };
+
+    /**
+     * Phases of a build, BOUNDARY_CALCULATION is part of BINNING
+     */
+    enum Phase {
+        BINNING, BOUNDARY_CALCULATION, KEY_GENERATION, TITLE_GENERATION, LEAF_GENERATION, WRITING
+    }
+
+    /**
+     * Reports the total time a build spent in a phase
+     * 
+     * @param phase
+     * @param nanos
+     */
+    default void phaseCompleted(Phase phase, long nanos) {
+    }
+
+    /**
+     * Reports the bins created at a level of the tree and how many of them hold
+     * records in the result. DateBinner creates a bin for every unit of its range,
+     * TemporalTreeBinner only creates bins for records but drops the bins under a
+     * parent below its breakLimit
+     * 
+     * @param level    depth in the configuration chain, 0 for the top level
+     * @param created
+     * @param nonEmpty
+     */
+    default void binsCreated(int level, long created, long nonEmpty) {
+    }
+
+    /**
+     * Reports the records placed at a level of the tree
+     * 
+     * @param level
+     * @param records
+     */
+    default void recordsBinned(int level, long records) {
+    }
+
+    /**
+     * Reports the bins at a level broken down because they reached their
+     * breakLimit
+     * 
+     * @param level
+     * @param count
+     */
+    default void breakDowns(int level, long count) {
+    }
+
+    default void leavesGenerated(long count) {
+    }
+
+    default void nodesProduced(long count) {
+    }
+
+    default void bytesWritten(long bytes) {
+    }
+}
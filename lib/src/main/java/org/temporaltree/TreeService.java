@@ -0,0 +1,163 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TreeService builds temporal trees for concurrent clients on virtual threads.
+ * Identical requests in flight share a single build, at most
+ * maxConcurrentBuilds builds run at once and requests beyond maxQueuedBuilds
+ * waiting builds are rejected, bounding the heap held by builds in progress.
+ * Shared results must not be modified by callers
+ * 
+ * @param <T>
+ */
+public class TreeService<T> implements AutoCloseable {
+    private final TreeGenerator<T> treeGenerator;
+    private final int maxAdmittedBuilds;
+    private final Semaphore buildPermits;
+    private final AtomicInteger admittedBuilds = new AtomicInteger();
+    private final ConcurrentHashMap<TreeRequest, CompletableFuture<ArrayNode>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean closed;
+
+    /**
+     * Identifies a build, requests with equal keys share a build
+     * 
+     * @param source        identifies the records and leaves, for example a
+     *                      table name
+     * @param zoneId
+     * @param configuration
+     * @param startUtcMs    inclusive start of the range
+     * @param endUtcMs      exclusive end of the range
+     */
+    public record TreeRequest(Object source, ZoneId zoneId, TemporalTreeConfiguration configuration, long startUtcMs,
+            long endUtcMs) {
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param treeGenerator
+     * @param maxConcurrentBuilds builds running at once
+     * @param maxQueuedBuilds     builds waiting for a running build to finish
+     */
+    public TreeService(TreeGenerator<T> treeGenerator, int maxConcurrentBuilds, int maxQueuedBuilds) {
+        if (maxConcurrentBuilds < 1 || maxQueuedBuilds < 0) {
+            throw new IllegalArgumentException("Invalid limits, maxConcurrentBuilds: " + maxConcurrentBuilds
+                    + ", maxQueuedBuilds: " + maxQueuedBuilds);
+        }
+        this.treeGenerator = treeGenerator;
+        this.maxAdmittedBuilds = maxConcurrentBuilds + maxQueuedBuilds;
+        this.buildPermits = new Semaphore(maxConcurrentBuilds, true);
+    }
+
+    /**
+     * Builds the temporal tree children of the sorted records in
+     * [startUtcMs, endUtcMs). Joins the build of an identical request in flight,
+     * which is assumed to have the same records and leaves for the same source
+     * 
+     * @param source              identifies the records and leaves
+     * @param records             sorted records
+     * @param epochMillisAccessor
+     * @param leafGenerator
+     * @param zoneId
+     * @param treeConfiguration   configuration, or null for the default
+     * @param startUtcMs
+     * @param endUtcMs
+     * @return future completed with the children, cancelling it does not affect
+     *         other requests sharing the build
+     * @throws RejectedExecutionException when closed or the queue is full
+     */
+    public CompletableFuture<ArrayNode> generateTemporalTreeChildren(Object source, List<T> records,
+            EpochMillisAccessor<T> epochMillisAccessor, LeafGenerator<T> leafGenerator, ZoneId zoneId,
+            TemporalTreeConfiguration treeConfiguration, long startUtcMs, long endUtcMs) {
+        TemporalTreeConfiguration configuration = treeConfiguration != null ? treeConfiguration
+                : TreeGenerator.getDefaultTreeConfiguration();
+        TreeRequest request = new TreeRequest(source, zoneId, configuration, startUtcMs, endUtcMs);
+        return inFlight.computeIfAbsent(request, key -> submit(key, () -> {
+            List<T> indexedRecords = TreeUtils.randomAccess(records);
+            int fromIndex = DateBinner.findFirstAtOrAfter(indexedRecords, epochMillisAccessor, 0,
+                    indexedRecords.size(), startUtcMs);
+            int toIndex = DateBinner.findFirstAtOrAfter(indexedRecords, epochMillisAccessor, fromIndex,
+                    indexedRecords.size(), endUtcMs);
+            return treeGenerator.generateTemporalTreeChildren(indexedRecords.subList(fromIndex, toIndex),
+                    epochMillisAccessor, leafGenerator, zoneId, configuration);
+        })).copy();
+    }
+
+    /**
+     * Returns the number of builds running or waiting to run
+     * 
+     * @return
+     */
+    public int getAdmittedBuilds() {
+        return admittedBuilds.get();
+    }
+
+    private interface Build {
+        ArrayNode build() throws Exception;
+    }
+
+    /**
+     * Admits a build and runs it on a virtual thread once a permit is free, the
+     * build leaves the in flight map when it completes
+     */
+    private CompletableFuture<ArrayNode> submit(TreeRequest request, Build build) {
+        if (closed) {
+            throw new RejectedExecutionException("Tree service is closed");
+        }
+        if (admittedBuilds.incrementAndGet() > maxAdmittedBuilds) {
+            admittedBuilds.decrementAndGet();
+            throw new RejectedExecutionException("Tree service queue is full, " + maxAdmittedBuilds + " builds");
+        }
+        CompletableFuture<ArrayNode> future = new CompletableFuture<>();
+        // registered before the build starts, so the removal never runs inside computeIfAbsent
+        future.whenComplete((result, throwable) -> inFlight.remove(request, future));
+        try {
+            executor.execute(() -> {
+                ArrayNode result = null;
+                Throwable failure = null;
+                try {
+                    buildPermits.acquire();
+                    try {
+                        result = build.build();
+                    } finally {
+                        buildPermits.release();
+                    }
+                } catch (Throwable throwable) {
+                    failure = throwable;
+                } finally {
+                    admittedBuilds.decrementAndGet();
+                }
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admittedBuilds.decrementAndGet();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Rejects new requests and waits for admitted builds to finish
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.close();
+    }
+}
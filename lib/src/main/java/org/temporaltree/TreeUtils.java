@@ -1,9 +1,16 @@
 package org.temporaltree;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
 public class TreeUtils {
     public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
@@ -21,4 +28,55 @@ public class TreeUtils {
         node.set("children", OBJECT_MAPPER.createArrayNode());
         return node;
     }
+
+    /**
+     * Creates a JsonGenerator for an output stream, the stream is left open when
+     * the generator is closed
+     * 
+     * @param outputStream
+     * @return JsonGenerator
+     * @throws IOException
+     */
+    public static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * Writes the start of a node with children, leaving the children array open
+     * 
+     * @param generator
+     * @param key
+     * @param title
+     * @throws IOException
+     */
+    public static void writeNodeStart(JsonGenerator generator, String key, String title) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", key);
+        generator.writeStringField("title", title);
+        generator.writeArrayFieldStart("children");
+    }
+
+    /**
+     * Closes the children array and the node started by writeNodeStart
+     * 
+     * @param generator
+     * @throws IOException
+     */
+    public static void writeNodeEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Returns the records as a list with random access, copying a list without
+     * it, such as a LinkedList, once so records can be read by index
+     * 
+     * @param records
+     * @return
+     */
+    static <T> List<T> randomAccess(List<T> records) {
+        return records instanceof RandomAccess ? records : new ArrayList<>(records);
+    }
 }
@@ -0,0 +1,8 @@
+package org.temporaltree;
+
+/**
+ * Accessor for a numeric value of a record reduced by an AggregateReducer
+ */
+public interface ValueAccessor<T> {
+    double getValue(T record);
+}
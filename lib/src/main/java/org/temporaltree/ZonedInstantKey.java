@@ -0,0 +1,13 @@
+package org.temporaltree;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Cache key identifying a ZonedDateTime by its utc epoch millisecond and zone
+ */
+record ZonedInstantKey(long epochMillis, ZoneId zoneId) {
+    static ZonedInstantKey of(ZonedDateTime zonedDate) {
+        return new ZonedInstantKey(zonedDate.toInstant().toEpochMilli(), zonedDate.getZone());
+    }
+}
@@ -0,0 +1,82 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveTreeBinnerTest {
+	private static final long START = 1716768000000L;
+
+	private static void assertFanOut(List<TemporalBinNode> bins, int fromIndex, int toIndex, int maxChildren) {
+		assertEquals(bins.size() <= maxChildren, true);
+		assertEquals(bins.get(0).fromIndex(), fromIndex);
+		assertEquals(bins.get(bins.size() - 1).toIndex(), toIndex);
+		for (int i = 0; i < bins.size(); i++) {
+			TemporalBinNode bin = bins.get(i);
+			if (i > 0) {
+				assertEquals(bin.fromIndex(), bins.get(i - 1).toIndex());
+			}
+			if (bin.children().isEmpty()) {
+				assertEquals(bin.count() <= maxChildren, true);
+			} else {
+				assertFanOut(bin.children(), bin.fromIndex(), bin.toIndex(), maxChildren);
+			}
+		}
+	}
+
+	@Test
+	public void testBin() {
+		List<Long> records = new ArrayList<>();
+		// a quiet day, a day of one record a second and a burst of 5000 records in one millisecond
+		for (int i = 0; i < 10; i++) {
+			records.add(START + i * 3600000L);
+		}
+		for (int i = 0; i < 86400; i++) {
+			records.add(START + 86400000L + i * 1000L);
+		}
+		for (int i = 0; i < 5000; i++) {
+			records.add(START + 2 * 86400000L);
+		}
+		AdaptiveTreeConfiguration configuration = AdaptiveTreeConfiguration.of(2, 100);
+		List<TemporalBinNode> bins = AdaptiveTreeBinner.bin(records, record -> record, ZoneId.of("Z"),
+				configuration);
+		assertFanOut(bins, 0, records.size(), 100);
+
+		// three days are under a minimum of four children, so the top level is the 35 hours
+		List<TemporalBinNode> hours = AdaptiveTreeBinner.bin(records, record -> record, ZoneId.of("Z"),
+				AdaptiveTreeConfiguration.of(4, 100));
+		assertFanOut(hours, 0, records.size(), 100);
+		assertEquals(hours.size(), 35);
+		assertEquals(hours.get(0).configuration().timeUnit(), ChronoUnit.HOURS);
+
+		// the year and month levels hold a single bin, so the days are the top level
+		assertEquals(bins.size(), 3);
+		assertEquals(bins.get(0).configuration().timeUnit(), ChronoUnit.DAYS);
+		assertEquals(bins.get(0).children().size(), 0);
+		TemporalBinNode busyDay = bins.get(1);
+		assertEquals(busyDay.children().size(), 24);
+		assertEquals(busyDay.children().get(0).children().size(), 60);
+		assertEquals(busyDay.children().get(0).children().get(0).configuration().timeUnit(), ChronoUnit.MINUTES);
+		TemporalBinNode burst = bins.get(2);
+		assertEquals(burst.children().size(), 100);
+		assertEquals(burst.children().get(0).configuration(), null);
+		assertEquals(burst.children().get(0).generateKey(), (86410) + "-" + (86410 + 49));
+
+		ArrayNode children = new TreeGenerator<Long>().generateAdaptiveTreeChildren(records, record -> record,
+				record -> {
+					ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+					leaf.put("key", record + "");
+					return leaf;
+				}, ZoneId.of("Z"), configuration);
+		assertEquals(children.get(0).get("key").asText(), "2024-05-27");
+		assertEquals(children.get(0).get("children").size(), 10);
+		assertEquals(children.get(2).get("children").get(1).get("key").asText(), "86460-86509");
+	}
+}
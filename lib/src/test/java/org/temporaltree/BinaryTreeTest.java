@@ -0,0 +1,86 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BinaryTreeTest {
+	private static final long START = 1717027200000L;
+
+	private final LeafGenerator<Long> leafGenerator = record -> {
+		ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+		leaf.put("key", record + "");
+		leaf.put("title", record + "");
+		leaf.put("isLeaf", true);
+		return leaf;
+	};
+
+	private List<Long> createRecords() {
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 3 * 24 * 60 * 6; i++) {
+			records.add(START + i * 10000L);
+		}
+		return records;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<Long> records = createRecords();
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		ArrayNode children = generator.generateTemporalTreeChildren(records, record -> record, leafGenerator,
+				ZoneId.of("US/Eastern"), null);
+		byte[] bytes = BinaryTreeWriter.write(children);
+		assertEquals(new BinaryTreeReader(bytes).toArrayNode(), children);
+
+		ObjectNode indexTree = generator.generateIndexTree(records, leafGenerator, 0, records.size() - 1);
+		assertEquals(new BinaryTreeReader(BinaryTreeWriter.write(indexTree)).toArrayNode().get(0), indexTree);
+	}
+
+	@Test
+	public void testTemporalTreeRanges() throws IOException {
+		List<Long> records = createRecords();
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		TemporalTreeConfiguration configuration = TreeGenerator.getDefaultTreeConfiguration();
+		List<TemporalBinNode> bins = TemporalTreeBinner.bin(records, record -> record, zoneId, configuration);
+		byte[] bytes = BinaryTreeWriter.writeTemporalTree(records, bins, leafGenerator);
+
+		Path path = Files.createTempFile("tree", ".bin");
+		try {
+			Files.write(path, bytes);
+			BinaryTreeReader reader = BinaryTreeReader.open(path);
+			assertEquals(reader.toArrayNode(),
+					new TreeGenerator<Long>().generateTemporalTreeChildren(records, bins, leafGenerator));
+
+			List<BinaryTreeNode> roots = reader.getRoots();
+			assertEquals(roots.size(), bins.size());
+			for (int i = 0; i < bins.size(); i++) {
+				assertEquals(roots.get(i).hasRange(), true);
+				assertEquals(roots.get(i).getStartUtcMs(), bins.get(i).startUtcMs());
+				assertEquals(roots.get(i).getEndUtcMs(), bins.get(i).endUtcMs());
+				assertEquals(roots.get(i).getChildCount(), bins.get(i).children().size());
+			}
+
+			BinaryTreeNode hour = reader.find("2024-05-31", "2024-05-31-13 EDT");
+			assertEquals(hour.getTitle(), "01:00 - 01:59 PM EDT");
+			assertEquals(hour.getChildCount(), 60);
+			BinaryTreeNode minute = hour.getChildren().get(59);
+			assertEquals(minute.getKey(), "2024-05-31-13-59 EDT");
+			assertEquals(minute.getEndUtcMs() - minute.getStartUtcMs(), 60000L);
+			BinaryTreeNode leaf = minute.getChildren().get(5);
+			assertEquals(leaf.isLeaf(), true);
+			assertEquals(leaf.getLeaf().get("key").asText(), String.valueOf(minute.getStartUtcMs() + 50000L));
+			assertEquals(reader.find("2024-05-31", "missing"), null);
+		} finally {
+			Files.delete(path);
+		}
+	}
+}
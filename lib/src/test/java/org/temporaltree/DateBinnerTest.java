@@ -6,6 +6,7 @@ import org.temporaltree.DateAccessor;
 
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
@@ -222,4 +223,179 @@ public class DateBinnerTest {
 			}
 		});
 	}
+
+	@Test
+	public void testDateBinnerEpochMillisAccessor() {
+		ZoneId id = ZoneId.of("US/Eastern");
+		ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(usEastDTStartMs), id).truncatedTo(ChronoUnit.DAYS);
+		ZonedDateTime end = start.plus(1, ChronoUnit.DAYS).minusSeconds(1);
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, start.toInstant(), end.toInstant(), id);
+
+		List<Long> records = new ArrayList<>();
+		for (long time = start.toInstant().toEpochMilli(); time <= end.toInstant().toEpochMilli(); time += 60 * 1000) {
+			records.add(time);
+		}
+		EpochMillisAccessor<Long> epochMillisAccessor = record -> record;
+		dateBinner.placeRecords(records, epochMillisAccessor);
+
+		// the spring forward day only has 23 hours
+		assertEquals(dateBinner.getBins().size(), 23);
+		int placed = 0;
+		for (TemporalBin<Long> bin : dateBinner.getBins()) {
+			assertEquals(bin.records().size(), 60);
+			placed += bin.records().size();
+		}
+		assertEquals(placed, records.size());
+	}
+
+	@Test
+	public void testPlaceRecordRanges() {
+		ZoneId id = ZoneId.of("Z");
+		ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(usEastDTStartMs), id).truncatedTo(ChronoUnit.DAYS);
+		ZonedDateTime end = start.plus(7, ChronoUnit.DAYS);
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.DAYS, ChronoField.EPOCH_DAY, start.toInstant(), end.toInstant(), id);
+
+		List<Long> records = new ArrayList<>();
+		long offset = 0;
+		for (int i = 0; i < 24 * 7; i++) {
+			records.add(start.toInstant().toEpochMilli() + offset);
+			offset += 60 * 60 * 1000;
+		}
+
+		List<TemporalBinNode> ranges = dateBinner.placeRecordRanges(records, record -> record);
+		assertEquals(ranges.size(), 8);
+		for (int i = 0; i < ranges.size(); i++) {
+			TemporalBinNode range = ranges.get(i);
+			if (i == 7) {
+				assertEquals(range.count(), 0);
+			} else {
+				assertEquals(range.fromIndex(), i * 24);
+				assertEquals(range.count(), 24);
+				range.records(records).forEach(record -> {
+					assertTrue(range.endUtcMs() > record);
+					assertTrue(range.startUtcMs() <= record);
+				});
+			}
+		}
+	}
+
+	@Test
+	public void testPlaceNonEmptyRecordRanges() {
+		long start = usEastDTStartMs - 10L * 24 * 60 * 60 * 1000;
+		long end = usEastDSTEndMs + 10L * 24 * 60 * 60 * 1000;
+		List<Long> records = new ArrayList<>();
+		// a sparse set of records with occasional dense bursts
+		for (long time = start; time < end; time += 7L * 60 * 60 * 1000 + 13 * 60 * 1000) {
+			records.add(time);
+			if (records.size() % 50 == 0) {
+				for (int i = 1; i < 500; i++) {
+					records.add(time + i * 100L);
+				}
+			}
+		}
+		EpochMillisAccessor<Long> epochMillisAccessor = record -> record;
+		ZoneId[] zones = new ZoneId[] { ZoneId.of("Z"), ZoneOffset.ofHoursMinutes(5, 45), ZoneId.of("US/Eastern"),
+				ZoneId.of("Pacific/Chatham") };
+		ChronoUnit[] units = new ChronoUnit[] { ChronoUnit.MONTHS, ChronoUnit.DAYS, ChronoUnit.HOURS };
+		ChronoField[] fields = new ChronoField[] { ChronoField.MONTH_OF_YEAR, ChronoField.EPOCH_DAY,
+				ChronoField.HOUR_OF_DAY };
+		for (ZoneId zoneId : zones) {
+			for (int u = 0; u < units.length; u++) {
+				DateBinner<Long> dateBinner = new DateBinner<>(units[u], fields[u], Instant.ofEpochMilli(start),
+						Instant.ofEpochMilli(records.get(records.size() - 1)), zoneId);
+				List<TemporalBinNode> expected = dateBinner.placeRecordRanges(records, epochMillisAccessor);
+				expected.removeIf(range -> range.count() == 0);
+				List<TemporalBinNode> ranges = DateBinner.placeNonEmptyRecordRanges(units[u], fields[u], records,
+						epochMillisAccessor, zoneId);
+				assertEquals(ranges.size(), expected.size());
+				for (int i = 0; i < ranges.size(); i++) {
+					assertEquals(ranges.get(i).fromIndex(), expected.get(i).fromIndex());
+					assertEquals(ranges.get(i).toIndex(), expected.get(i).toIndex());
+					assertEquals(ranges.get(i).startUtcMs(), expected.get(i).startUtcMs());
+					assertEquals(ranges.get(i).endUtcMs(), expected.get(i).endUtcMs());
+					assertEquals(ranges.get(i).value(), expected.get(i).value());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPlaceNonEmptyRecordRangesSparse() {
+		// three records years apart should only produce three minute bins
+		List<Long> records = List.of(usEastDTStartMs, usEastDTStartMs + 30 * 1000, usEastDSTEndMs,
+				usEastDSTEndMs + 3L * 365 * 24 * 60 * 60 * 1000);
+		List<TemporalBinNode> ranges = DateBinner.placeNonEmptyRecordRanges(ChronoUnit.MINUTES,
+				ChronoField.MINUTE_OF_HOUR, records, record -> record, ZoneId.of("US/Eastern"));
+		assertEquals(ranges.size(), 3);
+		assertEquals(ranges.get(0).count(), 2);
+		assertEquals(ranges.get(1).count(), 1);
+		assertEquals(ranges.get(2).count(), 1);
+	}
+
+	@Test
+	public void testBinBoundaryCache() {
+		BinBoundaryCache boundaryCache = new BinBoundaryCache(10000);
+		ZoneId id = ZoneId.of("US/Eastern");
+		Instant start = Instant.ofEpochMilli(usEastDSTEndMs - 2L * 24 * 60 * 60 * 1000);
+		Instant end = Instant.ofEpochMilli(usEastDSTEndMs + 2L * 24 * 60 * 60 * 1000);
+		DateBinner<Long> expected = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, start, end, id);
+
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, start, end, id,
+				boundaryCache);
+		long misses = boundaryCache.missCount();
+		assertTrue(misses > 0);
+		assertEquals(dateBinner.getBins(), expected.getBins());
+
+		// a shifted window within the same periods is served from the cache
+		dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY, start.plusSeconds(3600),
+				end.minusSeconds(3600), id, boundaryCache);
+		assertEquals(boundaryCache.missCount(), misses);
+		assertEquals(dateBinner.getBins(), new DateBinner<Long>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY,
+				start.plusSeconds(3600), end.minusSeconds(3600), id).getBins());
+
+		dateBinner = new DateBinner<>(ChronoUnit.MINUTES, ChronoField.MINUTE_OF_HOUR, start, end, id, boundaryCache);
+		// four days of minutes, inclusive of the end minute
+		assertEquals(dateBinner.getBins().size(), 4 * 24 * 60 + 1);
+
+		// the bins of a period follow the boundary calculator across the transition
+		BinBoundaryCache.PeriodBoundaries period = boundaryCache.getPeriod(ChronoUnit.HOURS, usEastDSTEndMs, id);
+		assertTrue(period.contains(usEastDSTEndMs));
+		for (int i = 0; i < period.size(); i++) {
+			assertEquals(period.boundaries()[i + 1],
+					DateBoundaryCalculator.getNext(ChronoUnit.HOURS, period.boundaries()[i], id));
+		}
+
+		// tree builds take their boundaries from the shared cache
+		List<Long> records = new ArrayList<>();
+		for (long time = start.toEpochMilli(); time < end.toEpochMilli(); time += 60 * 1000) {
+			records.add(time);
+		}
+		TemporalTreeBinner.bin(records, record -> record, id, TreeGenerator.getDefaultTreeConfiguration());
+		long hits = BinBoundaryCache.getDefault().hitCount();
+		misses = BinBoundaryCache.getDefault().missCount();
+		TemporalTreeBinner.bin(records, record -> record, id, TreeGenerator.getDefaultTreeConfiguration());
+		assertTrue(BinBoundaryCache.getDefault().hitCount() > hits);
+		assertEquals(BinBoundaryCache.getDefault().missCount(), misses);
+	}
+
+	@Test
+	public void testPlaceRecordsFromIterator() {
+		ZoneId id = ZoneId.of("US/Eastern");
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			records.add(1699160400000L + i * 7919L);
+		}
+		List<TemporalBin<Long>> bins = new ArrayList<>();
+		DateBinner.placeRecords(ChronoUnit.MINUTES, ChronoField.MINUTE_OF_HOUR, records.iterator(),
+				record -> record, id, bins::add);
+		List<TemporalBinNode> expected = DateBinner.placeNonEmptyRecordRanges(ChronoUnit.MINUTES,
+				ChronoField.MINUTE_OF_HOUR, records, record -> record, id);
+		assertEquals(bins.size(), expected.size());
+		for (int i = 0; i < bins.size(); i++) {
+			assertEquals(bins.get(i).startUtcMs(), expected.get(i).startUtcMs());
+			assertEquals(bins.get(i).endUtcMs(), expected.get(i).endUtcMs());
+			assertEquals(bins.get(i).value(), expected.get(i).value());
+			assertEquals(bins.get(i).records(), expected.get(i).records(records));
+		}
+	}
 }
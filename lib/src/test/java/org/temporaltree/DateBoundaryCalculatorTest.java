@@ -0,0 +1,79 @@
+package org.temporaltree;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateBoundaryCalculatorTest {
+
+	private static final long pacChadDSTStartMs = 1712411100000L; // 3:30 - 3:45 -> 2:45 shift
+	private static final long usEastDSTEndMs = 1730612700000L; // 1:45 - 2:00 -> 1:00 shift
+
+	/**
+	 * Step-wise reference, advances a unit at a time until the field or offset
+	 * changes
+	 */
+	private static ZonedDateTime stepNext(ChronoUnit timeUnit, ChronoField timeField, ZonedDateTime start) {
+		ZoneOffset initialOffset = start.getOffset();
+		long initialValue = start.getLong(timeField);
+		ZonedDateTime next = start;
+		ChronoUnit step = timeUnit == ChronoUnit.HOURS ? ChronoUnit.MINUTES : timeUnit;
+		while (next.getLong(timeField) == initialValue && next.getOffset().equals(initialOffset)) {
+			next = next.plus(1, step);
+		}
+		return next;
+	}
+
+	@Test
+	public void testMatchesStepwiseBoundaries() {
+		ChronoUnit[] units = new ChronoUnit[] { ChronoUnit.HOURS, ChronoUnit.MINUTES };
+		ChronoField[] fields = new ChronoField[] { ChronoField.HOUR_OF_DAY, ChronoField.MINUTE_OF_HOUR };
+		long[] transitions = new long[] { pacChadDSTStartMs, usEastDSTEndMs };
+		for (String zone : new String[] { "Pacific/Chatham", "US/Eastern", "Asia/Kathmandu" }) {
+			ZoneId zoneId = ZoneId.of(zone);
+			for (long transition : transitions) {
+				for (int u = 0; u < units.length; u++) {
+					ZonedDateTime current = ZonedDateTime
+							.ofInstant(Instant.ofEpochMilli(transition - 3 * 60 * 60 * 1000L), zoneId)
+							.truncatedTo(units[u]);
+					for (int i = 0; i < 200; i++) {
+						ZonedDateTime expected = stepNext(units[u], fields[u], current);
+						ZonedDateTime next = DateBoundaryCalculator.getNext(units[u], current);
+						assertEquals(next, expected);
+						assertEquals(DateBoundaryCalculator.getNext(units[u], current.toInstant().toEpochMilli(), zoneId),
+								expected.toInstant().toEpochMilli());
+						current = next;
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFixedOffset() {
+		ZoneId zoneId = ZoneOffset.ofHoursMinutes(5, 45);
+		ZonedDateTime zonedDateTime = ZonedDateTime.of(2024, 12, 31, 23, 59, 30, 0, zoneId);
+		assertEquals(DateBoundaryCalculator.getNext(ChronoUnit.MINUTES, zonedDateTime),
+				ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, zoneId));
+		assertEquals(DateBoundaryCalculator.getNext(ChronoUnit.HOURS, zonedDateTime),
+				ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, zoneId));
+		assertEquals(DateBoundaryCalculator.getNext(ChronoUnit.DAYS, zonedDateTime),
+				ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, zoneId));
+		assertEquals(DateBoundaryCalculator.getNext(ChronoUnit.MONTHS, zonedDateTime),
+				ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, zoneId));
+		assertEquals(DateBoundaryCalculator.getNext(ChronoUnit.YEARS, zonedDateTime),
+				ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, zoneId));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedUnit() {
+		DateBoundaryCalculator.getNext(ChronoUnit.MICROS, usEastDSTEndMs, ZoneId.of("Z"));
+	}
+}
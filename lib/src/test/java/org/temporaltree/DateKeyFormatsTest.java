@@ -0,0 +1,59 @@
+package org.temporaltree;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateKeyFormatsTest {
+
+	@Test
+	public void testMatchesFormatter() {
+		DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+		DateTimeFormatter hourFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH z");
+		DateTimeFormatter minuteFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm z");
+		for (String zone : new String[] { "Z", "US/Eastern", "Pacific/Chatham", "Europe/London" }) {
+			ZonedDateTime date = ZonedDateTime.of(2023, 3, 10, 0, 0, 0, 0, ZoneId.of(zone));
+			ZonedDateTime end = date.plusDays(30);
+			while (date.isBefore(end)) {
+				assertEquals(DateKeyFormats.formatDay(date), dayFormatter.format(date));
+				assertEquals(DateKeyFormats.formatHour(date), hourFormatter.format(date));
+				assertEquals(DateKeyFormats.formatMinute(date), minuteFormatter.format(date));
+				date = date.plusMinutes(47);
+			}
+		}
+		ZonedDateTime early = ZonedDateTime.of(5, 1, 2, 3, 4, 0, 0, ZoneId.of("Z"));
+		assertEquals(DateKeyFormats.formatMinute(early), minuteFormatter.format(early));
+		ZonedDateTime late = ZonedDateTime.of(12345, 1, 2, 3, 4, 0, 0, ZoneId.of("Z"));
+		assertEquals(DateKeyFormats.formatMinute(late), minuteFormatter.format(late));
+	}
+
+	@Test
+	public void testCachingGenerators() {
+		CachingDateKeyGenerator keyGenerator = new CachingDateKeyGenerator(new DateKeyGenerator() {
+			public String generateKey(ZonedDateTime zonedDate) {
+				return DateKeyFormats.formatHour(zonedDate);
+			}
+		}, 10);
+		CachingDateTitleGenerator titleGenerator = new CachingDateTitleGenerator(new DateTitleGenerator() {
+			public String generateTitle(ZonedDateTime zonedDate) {
+				return zonedDate.toString();
+			}
+		}, 10);
+		ZonedDateTime date = ZonedDateTime.of(2023, 11, 5, 1, 0, 0, 0, ZoneId.of("US/Eastern"));
+		ZonedDateTime repeated = date.plusHours(1);
+		assertEquals(keyGenerator.generateKey(date), "2023-11-05-01 EDT");
+		assertEquals(keyGenerator.generateKey(repeated), "2023-11-05-01 EST");
+		assertEquals(keyGenerator.generateKey(date.withZoneSameInstant(ZoneId.of("Z"))), "2023-11-05-05 Z");
+		assertEquals(keyGenerator.generateKey(date), "2023-11-05-01 EDT");
+		assertEquals(keyGenerator.missCount(), 3L);
+		assertEquals(keyGenerator.hitCount(), 1L);
+
+		assertEquals(titleGenerator.generateTitle(date), date.toString());
+		assertEquals(titleGenerator.generateTitle(date), date.toString());
+		assertEquals(titleGenerator.hitCount(), 1L);
+	}
+}
@@ -0,0 +1,66 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalTemporalTreeTest {
+
+	@Test
+	public void testAppendMatchesFullBuild() {
+		long start = 1730520000000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		LeafGenerator<Integer> leafGenerator = record -> TreeUtils.createNodeWithChildren(record + "", record + "");
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		TreeGenerator<Integer> generator = new TreeGenerator<>();
+
+		IncrementalTemporalTree<Integer> tree = new IncrementalTemporalTree<>(epochMillisAccessor, zoneId, null);
+		List<Integer> records = new ArrayList<>();
+		int time = 0;
+		// batches of varying density so trailing bins cross their break limits part way through
+		for (int batch = 0; batch < 40; batch++) {
+			List<Integer> records2 = new ArrayList<>();
+			int step = batch % 3 == 0 ? 1 : 97;
+			for (int i = 0; i < 500; i++) {
+				records2.add(time);
+				time += step;
+			}
+			records.addAll(records2);
+			List<TemporalBinNode> changed = tree.append(records2);
+			assertTrue(changed.size() > 0);
+
+			ArrayNode expected = generator.generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator,
+					zoneId, null);
+			assertEquals(generator.generateTemporalTreeChildren(tree.getRecords(), tree.getBins(), leafGenerator),
+					expected);
+		}
+	}
+
+	@Test
+	public void testAppendOnlyChangesTrailingBins() {
+		long start = 1717027200000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		IncrementalTemporalTree<Integer> tree = new IncrementalTemporalTree<>(epochMillisAccessor, ZoneId.of("Z"), null);
+		List<Integer> batch = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 3; i++) {
+			batch.add(i);
+		}
+		tree.append(batch);
+		List<TemporalBinNode> changed = tree.append(List.of(60 * 60 * 3, 60 * 60 * 3 + 1));
+		// the day grows and a new hour is added
+		assertEquals(changed.size(), 2);
+		assertEquals(changed.get(0).count(), 60 * 60 * 3 + 2);
+		assertEquals(changed.get(1).count(), 2);
+
+		changed = tree.append(List.of(60 * 60 * 3 + 2));
+		// the day and the trailing hour grow
+		assertEquals(changed.size(), 2);
+		assertEquals(changed.get(1).count(), 3);
+	}
+}
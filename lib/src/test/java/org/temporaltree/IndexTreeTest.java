@@ -0,0 +1,151 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexTreeTest {
+
+	private static int countNodes(JsonNode node) {
+		int count = 1;
+		for (JsonNode child : node.get("children")) {
+			if (child.get("key").asText().contains("-")) {
+				count += countNodes(child);
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testIndexTree() throws IOException {
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 1234; i++) {
+			records.add(i + "");
+		}
+		IndexTreeConfiguration configuration = new IndexTreeConfiguration(4, 10);
+		IndexTree<String> tree = new IndexTree<>(records, configuration);
+		LazyTreeNode root = tree.getRoot();
+		assertEquals(root.key(), "0-1233");
+		assertEquals(root.leafParent(), false);
+
+		// children hold 10 * 4^3 records, so the root has two children
+		List<LazyTreeNode> children = tree.getChildren(root.key());
+		assertEquals(children.size(), 2);
+		assertEquals(children.get(0).key(), "0-639");
+		assertEquals(children.get(1).key(), "640-1233");
+		assertEquals(tree.getChildren("640-1233").get(3).key(), "1120-1233");
+		assertEquals(tree.getChildren("1120-1159").size(), 4);
+		assertEquals(tree.getChildren("1230-1233").size(), 0);
+		assertEquals(tree.getLeaves("1230-1233", record -> TreeUtils.createNodeWithChildren(record, record)).size(),
+				4);
+
+		TreeGenerator<String> generator = new TreeGenerator<>();
+		ObjectNode expected = generator.generateIndexTree(records,
+				record -> TreeUtils.createNodeWithChildren(record, record), configuration);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeIndexTree(outputStream, records, (jsonGenerator, record) -> {
+			TreeUtils.writeNodeStart(jsonGenerator, record, record);
+			TreeUtils.writeNodeEnd(jsonGenerator);
+		}, configuration);
+		assertEquals(TreeUtils.OBJECT_MAPPER.readTree(outputStream.toByteArray()), expected);
+
+		// the iterator visits every node depth first, leaf chunks cover the records in order
+		Iterator<LazyTreeNode> nodes = tree.iterator();
+		int count = 0;
+		int next = 0;
+		while (nodes.hasNext()) {
+			LazyTreeNode node = nodes.next();
+			if (node.leafParent()) {
+				assertEquals(node.fromIndex(), next);
+				assertEquals(node.count() <= 10, true);
+				next = node.toIndex();
+			}
+			count++;
+		}
+		assertEquals(next, records.size());
+		assertEquals(count, countNodes(expected));
+	}
+
+	@Test
+	public void testEmptyIndexTree() {
+		IndexTree<String> tree = new IndexTree<>(new ArrayList<>(), new IndexTreeConfiguration(10, 100));
+		assertEquals(tree.getRoot().key(), "0-0");
+		assertEquals(tree.getRoot().count(), 0);
+		assertEquals(tree.getChildren("0-0").size(), 0);
+		Iterator<LazyTreeNode> nodes = tree.iterator();
+		assertEquals(nodes.next().key(), "0-0");
+		assertEquals(nodes.hasNext(), false);
+	}
+
+	@Test
+	public void testPowersOfTen() throws IOException {
+		// 201 records split into chunks of 100, 100 and 1, the last record is kept
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 201; i++) {
+			records.add(i + "");
+		}
+		TreeGenerator<String> generator = new TreeGenerator<>();
+		ObjectNode expected = generator.generateIndexTree(records,
+				record -> TreeUtils.createNodeWithChildren(record, record), 0, records.size() - 1);
+		assertEquals(expected.get("children").size(), 3);
+		assertEquals(expected.get("children").get(2).get("key").asText(), "200-200");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeIndexTree(outputStream, records, (jsonGenerator, record) -> {
+			TreeUtils.writeNodeStart(jsonGenerator, record, record);
+			TreeUtils.writeNodeEnd(jsonGenerator);
+		}, 0, records.size() - 1);
+		assertEquals(TreeUtils.OBJECT_MAPPER.readTree(outputStream.toByteArray()), expected);
+
+		LazyIndexTree<String> tree = new LazyIndexTree<>(records);
+		assertEquals(tree.getRoot().key(), "0-200");
+		assertEquals(tree.getChildren("0-200").get(0).key(), "0-99");
+		assertEquals(tree.getChildren("0-99").size(), 0);
+		// chunks hold up to 101 records
+		assertEquals(new LazyIndexTree<>(records.subList(0, 101)).getRoot().leafParent(), true);
+		assertEquals(new LazyIndexTree<>(new ArrayList<String>()).getChildren("0-0").size(), 0);
+	}
+
+	@Test
+	public void testIndexSubRange() {
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			records.add(i + "");
+		}
+		// the sub-range 100-450 holds chunks of 100 records, the last ending at 450
+		TreeGenerator<String> generator = new TreeGenerator<>();
+		ObjectNode tree = generator.generateIndexTree(records,
+				record -> TreeUtils.createNodeWithChildren(record, record), 100, 450);
+		assertEquals(tree.get("key").asText(), "100-450");
+		JsonNode children = tree.get("children");
+		assertEquals(children.size(), 4);
+		assertEquals(children.get(3).get("key").asText(), "400-450");
+		int leaves = 0;
+		for (JsonNode child : children) {
+			leaves += child.get("children").size();
+		}
+		assertEquals(leaves, 351);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIndexRangeOutOfBounds() {
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			records.add(i + "");
+		}
+		new TreeGenerator<String>().generateIndexTree(records,
+				record -> TreeUtils.createNodeWithChildren(record, record), 0, records.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidConfiguration() {
+		new IndexTreeConfiguration(1, 100);
+	}
+}
@@ -0,0 +1,112 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LazyTreeTest {
+
+	private static final LeafGenerator<Integer> leafGenerator = record -> TreeUtils.createNodeWithChildren(record + "",
+			record + "");
+
+	/**
+	 * Expands every node of the lazy tree and compares it with the eagerly
+	 * generated node
+	 */
+	private static void assertMatches(LazyTemporalTree<Integer> tree, List<LazyTreeNode> nodes, JsonNode expected) {
+		assertEquals(nodes.size(), expected.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			LazyTreeNode node = nodes.get(i);
+			JsonNode expectedNode = expected.get(i);
+			assertEquals(node.key(), expectedNode.get("key").asText());
+			assertEquals(node.title(), expectedNode.get("title").asText());
+			if (node.leafParent()) {
+				assertEquals(tree.getLeaves(node.key(), leafGenerator), expectedNode.get("children"));
+			} else {
+				assertMatches(tree, tree.getChildren(node.key()), expectedNode.get("children"));
+			}
+		}
+	}
+
+	@Test
+	public void testLazyTemporalTree() {
+		long start = 1730520000000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 24 * 2; i += 5) {
+			records.add(i);
+		}
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		LazyTemporalTree<Integer> tree = new LazyTemporalTree<>(records, epochMillisAccessor, zoneId, null);
+		List<LazyTreeNode> roots = tree.getRoots();
+		int count = 0;
+		for (LazyTreeNode root : roots) {
+			assertTrue(root.startUtcMs() <= start + records.get(root.fromIndex()) * 1000L);
+			assertTrue(root.endUtcMs() > start + records.get(root.toIndex() - 1) * 1000L);
+			count += root.count();
+		}
+		assertEquals(count, records.size());
+
+		ArrayNode expected = new TreeGenerator<Integer>().generateTemporalTreeChildren(records, epochMillisAccessor,
+				leafGenerator, zoneId, null);
+		assertMatches(tree, roots, expected);
+	}
+
+	@Test
+	public void testLazyTemporalTreeEviction() {
+		long start = 1730520000000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 24 * 2; i += 5) {
+			records.add(i);
+		}
+		// without room for expanded nodes only the days are held
+		LazyTemporalTree<Integer> tree = new LazyTemporalTree<>(records, epochMillisAccessor,
+				ZoneId.of("US/Eastern"), null, 0);
+		List<LazyTreeNode> roots = tree.getRoots();
+		LazyTreeNode hour = tree.getChildren(roots.get(0).key()).get(0);
+		boolean evicted = false;
+		try {
+			tree.getChildren(hour.key());
+		} catch (IllegalArgumentException e) {
+			evicted = true;
+		}
+		assertEquals(evicted, true);
+		assertEquals(tree.getChildren(roots.get(1).key()).size(), 24);
+	}
+
+	@Test
+	public void testLazyIndexTree() {
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 12345; i++) {
+			records.add(i);
+		}
+		LazyIndexTree<Integer> tree = new LazyIndexTree<>(records);
+		ObjectNode expected = new TreeGenerator<Integer>().generateIndexTree(records, leafGenerator, 0,
+				records.size() - 1);
+		LazyTreeNode root = tree.getRoot();
+		assertEquals(root.key(), expected.get("key").asText());
+		assertEquals(root.count(), records.size());
+
+		List<LazyTreeNode> children = tree.getChildren(root.key());
+		JsonNode expectedChildren = expected.get("children");
+		assertEquals(children.size(), expectedChildren.size());
+		for (int i = 0; i < children.size(); i++) {
+			assertEquals(children.get(i).key(), expectedChildren.get(i).get("key").asText());
+		}
+
+		LazyTreeNode leafParent = tree.getChildren(tree.getChildren(children.get(0).key()).get(2).key()).get(3);
+		assertTrue(leafParent.leafParent());
+		ArrayNode leaves = tree.getLeaves(leafParent.key(), leafGenerator);
+		assertEquals(leaves.size(), leafParent.count());
+		assertEquals(leaves.get(0).get("key").asText(), leafParent.fromIndex() + "");
+	}
+}
@@ -0,0 +1,87 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedTemporalIndexTest {
+	private static final long START = 1699142400000L;
+
+	@Test
+	public void testMappedIndex() throws IOException {
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			records.add(START + i * 17000L);
+		}
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		TemporalTreeConfiguration configuration = TreeGenerator.getDefaultTreeConfiguration();
+		Path path = Files.createTempFile("index", ".bin");
+		try {
+			try (MappedTemporalIndex.Writer writer = MappedTemporalIndex.create(path)) {
+				for (int i = 0; i < records.size(); i++) {
+					writer.append(records.get(i), i);
+				}
+			}
+			// small chunks so entries are read across mappings
+			MappedTemporalIndex index = MappedTemporalIndex.open(path, 1024);
+			assertEquals(index.size(), 20000L);
+			assertEquals(index.getEpochMillis(1024), (long) records.get(1024));
+			assertEquals(index.getOffset(19999), 19999L);
+			assertEquals(index.findFirstAtOrAfter(START + 17001L), 2L);
+
+			MappedTemporalIndex.Slice slice = index.slice(0, index.size());
+			List<TemporalBinNode> bins = slice.bin(zoneId, configuration);
+			assertEquals(bins, TemporalTreeBinner.bin(records, record -> record, zoneId, configuration));
+
+			List<Long> resolved = slice.records(offset -> records.get((int) offset));
+			TreeGenerator<Long> generator = new TreeGenerator<>();
+			LeafWriter<Long> leafWriter = (jsonGenerator, record) -> {
+				jsonGenerator.writeStartObject();
+				jsonGenerator.writeStringField("key", record + "");
+				jsonGenerator.writeEndObject();
+			};
+			ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+			try (JsonGenerator jsonGenerator = TreeUtils.createGenerator(mapped)) {
+				generator.writeTemporalTreeChildren(jsonGenerator, resolved, bins, leafWriter);
+			}
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			generator.writeTemporalTreeChildren(expected, records, record -> record, leafWriter, zoneId, null);
+			assertEquals(mapped.toString(), expected.toString());
+
+			MappedTemporalIndex.Slice hour = index.sliceBetween(START + 3600000L, START + 7200000L);
+			assertEquals(hour.size(), 212);
+			assertEquals(hour.getEpochMillis(0) >= START + 3600000L, true);
+			ArrayNode children = generator.generateTemporalTreeChildren(hour.records(offset -> records.get((int) offset)),
+					hour.bin(zoneId, configuration), record -> {
+						ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+						leaf.put("key", record + "");
+						return leaf;
+					});
+			assertEquals(children.get(0).get("children").size(), 1);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsortedAppend() throws IOException {
+		Path path = Files.createTempFile("index", ".bin");
+		try (MappedTemporalIndex.Writer writer = MappedTemporalIndex.create(path)) {
+			writer.append(2, 0);
+			writer.append(1, 1);
+		} finally {
+			Files.delete(path);
+		}
+	}
+}
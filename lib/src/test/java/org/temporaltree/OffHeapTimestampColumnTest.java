@@ -0,0 +1,93 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class OffHeapTimestampColumnTest {
+
+	@Test
+	public void testColumn() {
+		long start = 1699160400000L;
+		List<Long> records = new ArrayList<>();
+		OffHeapTimestampColumn column = new OffHeapTimestampColumn(16);
+		for (int i = 0; i < 30000; i++) {
+			long datetimeUtc = start + i * 997L;
+			records.add(datetimeUtc);
+			column.append(datetimeUtc, i);
+		}
+		assertEquals(column.size(), 30000);
+		assertEquals(column.getEpochMillis(29999), start + 29999 * 997L);
+		assertEquals(column.getId(12345), 12345L);
+
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		Set<Long> resolved = new HashSet<>();
+		LeafGenerator<Long> leafGenerator = record -> {
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		};
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		ArrayNode children = generator.generateTemporalTreeChildren(column, column.records(id -> {
+			resolved.add(id);
+			return records.get((int) id);
+		}), leafGenerator, zoneId, null);
+		assertEquals(children, generator.generateTemporalTreeChildren(records, record -> record, leafGenerator,
+				zoneId, null));
+		assertEquals(resolved.size(), records.size());
+
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY,
+				Instant.ofEpochMilli(start), Instant.ofEpochMilli(column.getEpochMillis(column.size() - 1)), zoneId);
+		List<TemporalBinNode> ranges = dateBinner.placeRecordRanges(column);
+		assertEquals(ranges, dateBinner.placeRecordRanges(records, record -> record));
+	}
+
+	@Test
+	public void testClose() throws IOException {
+		long start = 1699160400000L;
+		List<Long> records = new ArrayList<>();
+		InMemoryTreeMetrics metrics = new InMemoryTreeMetrics();
+		try (OffHeapTimestampColumn column = new OffHeapTimestampColumn(0);
+				JsonGenerator generator = TreeUtils.createGenerator(new ByteArrayOutputStream())) {
+			for (int i = 0; i < 1000; i++) {
+				records.add(start + i * 997L);
+				column.append(start + i * 997L, i);
+			}
+			assertEquals(column.getEpochMillis(999), start + 999 * 997L);
+			new TreeGenerator<Long>(metrics).writeTemporalTreeChildren(generator, column,
+					column.records(id -> records.get((int) id)), (jsonGenerator, record) -> {
+						jsonGenerator.writeNumber(record);
+					}, ZoneId.of("Z"), null);
+			column.close();
+			assertEquals(column.size(), 0);
+		}
+		assertEquals(metrics.getLeaves(), 1000L);
+		assertEquals(metrics.getRecordsBinned(0), 1000L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new OffHeapTimestampColumn(OffHeapTimestampColumn.MAX_CAPACITY + 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsortedAppend() {
+		OffHeapTimestampColumn column = new OffHeapTimestampColumn(4);
+		column.append(2, 0);
+		column.append(1, 1);
+	}
+}
@@ -0,0 +1,89 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryableTemporalTreeTest {
+	private static final long START = 1717027200000L;
+
+	private static int countLeaves(List<TemporalBinNode> bins, long startUtcMs, long endUtcMs,
+			List<Long> records) {
+		int count = 0;
+		for (TemporalBinNode bin : bins) {
+			if (bin.children().isEmpty()) {
+				for (long record : bin.records(records)) {
+					assertEquals(record >= startUtcMs && record < endUtcMs, true);
+				}
+				count += bin.count();
+			} else {
+				count += countLeaves(bin.children(), startUtcMs, endUtcMs, records);
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testQuery() {
+		List<Long> records = new ArrayList<>();
+		Random random = new Random(7);
+		long datetimeUtc = START;
+		for (int i = 0; i < 20000; i++) {
+			datetimeUtc += random.nextInt(20000);
+			records.add(datetimeUtc);
+		}
+		QueryableTemporalTree tree = QueryableTemporalTree.of(records, record -> record, ZoneId.of("US/Eastern"),
+				null);
+		for (int i = 0; i < 200; i++) {
+			long startUtcMs = START + (long) (random.nextDouble() * (datetimeUtc - START));
+			long endUtcMs = startUtcMs + random.nextInt(24 * 3600000);
+			QueryableTemporalTree.RecordRange range = tree.getRecordRange(startUtcMs, endUtcMs);
+			assertEquals(range.count(),
+					(int) records.stream().filter(r -> r >= startUtcMs && r < endUtcMs).count());
+			List<TemporalBinNode> bins = tree.query(startUtcMs, endUtcMs);
+			assertEquals(countLeaves(bins, startUtcMs, endUtcMs, records), range.count());
+			if (!bins.isEmpty()) {
+				assertEquals(bins.get(0).fromIndex(), range.fromIndex());
+				assertEquals(bins.get(bins.size() - 1).toIndex(), range.toIndex());
+			}
+		}
+
+		long hourStart = START + 3600000L * 30;
+		ArrayNode children = new TreeGenerator<Long>().generateTemporalTreeChildren(records,
+				tree.query(hourStart, hourStart + 3600000L), record -> {
+					ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+					leaf.put("key", record + "");
+					return leaf;
+				});
+		assertEquals(children.size(), 1);
+		assertEquals(children.get(0).get("key").asText(), "2024-05-31");
+		assertEquals(children.get(0).get("children").size(), 1);
+		assertEquals(children.get(0).get("children").get(0).get("key").asText(), "2024-05-31-02 EDT");
+	}
+
+	@Test
+	public void testFindNode() {
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 24 * 60; i++) {
+			records.add(START + i * 60000L);
+		}
+		records.add(START + 3 * 86400000L);
+		QueryableTemporalTree tree = QueryableTemporalTree.of(records, record -> record, ZoneId.of("Z"), null);
+		// hours of 60 records are under the breakLimit, so the hour is the deepest bin
+		TemporalBinNode hour = tree.findNode(START + 3600000L + 61000L);
+		assertEquals(hour.startUtcMs(), START + 3600000L);
+		assertEquals(hour.count(), 60);
+		assertEquals(tree.findNode(START + 86400000L), null);
+		TemporalBinNode day = tree.findNode(START + 3 * 86400000L + 5000L);
+		assertEquals(day.startUtcMs(), START + 3 * 86400000L);
+		assertEquals(day.children().size(), 0);
+		assertEquals(tree.findNode(START - 1), null);
+	}
+}
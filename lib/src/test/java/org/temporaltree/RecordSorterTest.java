@@ -0,0 +1,135 @@
+package org.temporaltree;
+
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecordSorterTest {
+	private static final RecordSerializer<long[]> serializer = new RecordSerializer<long[]>() {
+		@Override
+		public void write(DataOutput output, long[] record) throws IOException {
+			output.writeLong(record[0]);
+			output.writeLong(record[1]);
+		}
+
+		@Override
+		public long[] read(DataInput input) throws IOException {
+			return new long[] { input.readLong(), input.readLong() };
+		}
+	};
+
+	private static List<long[]> createRecords() {
+		List<long[]> records = new ArrayList<>();
+		Random random = new Random(3);
+		for (int i = 0; i < 10000; i++) {
+			// timestamp and arrival sequence, timestamps repeat to check stability
+			records.add(new long[] { random.nextInt(2000), i });
+		}
+		return records;
+	}
+
+	private static void assertSorted(List<long[]> sorted, List<long[]> records) {
+		List<long[]> expected = new ArrayList<>(records);
+		expected.sort(Comparator.comparingLong(record -> record[0]));
+		assertEquals(sorted.size(), expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(sorted.get(i)[0], expected.get(i)[0]);
+			assertEquals(sorted.get(i)[1], expected.get(i)[1]);
+		}
+	}
+
+	@Test
+	public void testSort() {
+		List<long[]> records = createRecords();
+		RecordSorter<long[]> sorter = new RecordSorter<>(record -> record[0]);
+		RecordSorter.SortResult<long[]> result = sorter.sort(records);
+		assertSorted(result.records(), records);
+		assertEquals(result.reorderedCount(), sorter.countReordered(records));
+		assertEquals(result.reorderedCount() > 0, true);
+
+		RecordSorter.SortResult<long[]> sorted = sorter.sort(result.records());
+		assertEquals(sorted.records() == result.records(), true);
+		assertEquals(sorted.reorderedCount(), 0L);
+
+		// timestamps too far apart to pack with their index are merge sorted
+		List<long[]> wide = createRecords();
+		wide.get(0)[0] = Long.MIN_VALUE;
+		wide.get(1)[0] = Long.MAX_VALUE;
+		assertSorted(sorter.sort(wide).records(), wide);
+	}
+
+	@Test
+	public void testExternalSort() throws IOException {
+		List<long[]> records = createRecords();
+		RecordSorter<long[]> sorter = new RecordSorter<>(record -> record[0]);
+		Path spillDirectory = Files.createTempDirectory("spill");
+		try {
+			List<long[]> sorted = new ArrayList<>();
+			try (RecordSorter.SortedIterator<long[]> iterator = sorter.sort(records.iterator(), serializer, 999,
+					spillDirectory)) {
+				assertEquals(iterator.getReorderedCount(), sorter.countReordered(records));
+				try (var files = Files.list(spillDirectory)) {
+					assertEquals(files.count(), 11L);
+				}
+				iterator.forEachRemaining(sorted::add);
+			}
+			assertSorted(sorted, records);
+			try (var files = Files.list(spillDirectory)) {
+				assertEquals(files.count(), 0L);
+			}
+		} finally {
+			Files.delete(spillDirectory);
+		}
+	}
+
+	@Test
+	public void testExternalSortMergePasses() throws IOException {
+		List<long[]> records = createRecords();
+		RecordSorter<long[]> sorter = new RecordSorter<>(record -> record[0]);
+		Path spillDirectory = Files.createTempDirectory("spill");
+		try {
+			List<long[]> sorted = new ArrayList<>();
+			try (RecordSorter.SortedIterator<long[]> iterator = sorter.sort(records.iterator(), serializer, 10,
+					spillDirectory)) {
+				// 1000 runs are merged 64 at a time into 16 runs before the final merge
+				try (var files = Files.list(spillDirectory)) {
+					assertEquals(files.count(), 16L);
+				}
+				iterator.forEachRemaining(sorted::add);
+			}
+			assertSorted(sorted, records);
+			try (var files = Files.list(spillDirectory)) {
+				assertEquals(files.count(), 0L);
+			}
+		} finally {
+			Files.delete(spillDirectory);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxRecordsInMemory() throws IOException {
+		new RecordSorter<Long>(record -> record).sort(List.of(1L).iterator(), null, 0, null);
+	}
+
+	@Test
+	public void testLateArrivalBuffer() {
+		LateArrivalBuffer<Long> buffer = new LateArrivalBuffer<>(record -> record, 10);
+		assertEquals(buffer.add(List.of(100L, 105L, 102L)), List.of());
+		assertEquals(buffer.add(List.of(113L)), List.of(100L, 102L));
+		assertEquals(buffer.add(List.of(104L, 101L, 120L)), List.of(104L, 105L));
+		assertEquals(buffer.getReorderedCount(), 2L);
+		assertEquals(buffer.getDroppedCount(), 1L);
+		assertEquals(buffer.size(), 2);
+		assertEquals(buffer.flush(), List.of(113L, 120L));
+	}
+}
@@ -0,0 +1,123 @@
+package org.temporaltree;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TemporalTreeBinnerTest {
+
+	private static final long usEastDSTEndMs = 1730612700000L; // 1:45 - 2:00 -> 1:00 shift
+	private static final long pacChadDSTStartMs = 1712411100000L; // 3:30 - 3:45 -> 2:45 shift
+
+	private static final EpochMillisAccessor<Long> epochMillisAccessor = record -> record;
+
+	private static TemporalTreeConfiguration createConfiguration() {
+		DateTimeFormatter formatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+		DateKeyGenerator keyGenerator = new DateKeyGenerator() {
+			public String generateKey(ZonedDateTime zonedDate) {
+				return formatter.format(zonedDate);
+			}
+		};
+		DateTitleGenerator titleGenerator = new DateTitleGenerator() {
+			public String generateTitle(ZonedDateTime zonedDate) {
+				return formatter.format(zonedDate);
+			}
+		};
+		TemporalTreeConfiguration minuteConfiguration = new TemporalTreeConfiguration(ChronoUnit.MINUTES,
+				ChronoField.MINUTE_OF_HOUR, keyGenerator, titleGenerator, -1, null);
+		TemporalTreeConfiguration hourConfiguration = new TemporalTreeConfiguration(ChronoUnit.HOURS,
+				ChronoField.HOUR_OF_DAY, keyGenerator, titleGenerator, 100, minuteConfiguration);
+		return new TemporalTreeConfiguration(ChronoUnit.DAYS, ChronoField.EPOCH_DAY, keyGenerator, titleGenerator,
+				50, hourConfiguration);
+	}
+
+	/**
+	 * Reference implementation that re-bins every level with a DateBinner
+	 */
+	private static List<String> referenceKeys(List<Long> records, ZoneId zoneId,
+			TemporalTreeConfiguration configuration) {
+		List<String> keys = new ArrayList<>();
+		DateBinner<Long> dateBinner = new DateBinner<>(configuration.timeUnit(), configuration.timeField(),
+				Instant.ofEpochMilli(records.get(0)),
+				Instant.ofEpochMilli(records.get(records.size() - 1)), zoneId);
+		dateBinner.placeRecords(records, epochMillisAccessor);
+		for (TemporalBin<Long> bin : dateBinner.getBins()) {
+			if (bin.records().isEmpty()) {
+				continue;
+			}
+			keys.add(configuration.keyGenerator().generateKey(bin.date()) + ":" + bin.records().size());
+			if (configuration.breakLimit() != -1 && bin.records().size() >= configuration.breakLimit()) {
+				keys.addAll(referenceKeys(bin.records(), zoneId, configuration.breakConfiguration()));
+			}
+		}
+		return keys;
+	}
+
+	private static void collectKeys(List<TemporalBinNode> bins, List<String> keys) {
+		for (TemporalBinNode bin : bins) {
+			keys.add(bin.configuration().keyGenerator().generateKey(bin.date()) + ":" + bin.count());
+			collectKeys(bin.children(), keys);
+		}
+	}
+
+	private static List<Long> createRecords(long start, long end, long step) {
+		List<Long> records = new ArrayList<>();
+		for (long time = start; time < end; time += step) {
+			records.add(time);
+		}
+		return records;
+	}
+
+	@Test
+	public void testMatchesRecursiveBinning() {
+		TemporalTreeConfiguration configuration = createConfiguration();
+		long day = 24 * 60 * 60 * 1000L;
+		long[][] ranges = new long[][] { { usEastDSTEndMs - day, usEastDSTEndMs + day, 37 * 1000L },
+				{ pacChadDSTStartMs - day, pacChadDSTStartMs + day, 53 * 1000L },
+				{ usEastDSTEndMs - 3 * day, usEastDSTEndMs + 3 * day, 29 * 60 * 1000L } };
+		for (String zone : new String[] { "Z", "US/Eastern", "Pacific/Chatham" }) {
+			ZoneId zoneId = ZoneId.of(zone);
+			for (long[] range : ranges) {
+				List<Long> records = createRecords(range[0], range[1], range[2]);
+				List<String> keys = new ArrayList<>();
+				collectKeys(TemporalTreeBinner.bin(records, epochMillisAccessor, zoneId, configuration), keys);
+				assertEquals(keys, referenceKeys(records, zoneId, configuration));
+			}
+		}
+	}
+
+	@Test
+	public void testIndexRanges() {
+		long start = 1717027200000L;
+		List<Long> records = createRecords(start, start + 2 * 60 * 60 * 1000L, 1000L);
+		List<TemporalBinNode> bins = TemporalTreeBinner.bin(records, epochMillisAccessor, ZoneId.of("Z"),
+				createConfiguration());
+		assertEquals(bins.size(), 1);
+		TemporalBinNode day = bins.get(0);
+		assertEquals(day.fromIndex(), 0);
+		assertEquals(day.toIndex(), records.size());
+		assertEquals(day.children().size(), 2);
+		int expectedFrom = 0;
+		for (TemporalBinNode hour : day.children()) {
+			assertEquals(hour.fromIndex(), expectedFrom);
+			assertEquals(hour.count(), 3600);
+			assertEquals(hour.children().size(), 60);
+			for (TemporalBinNode minute : hour.children()) {
+				assertEquals(minute.fromIndex(), expectedFrom);
+				assertEquals(minute.records(records).get(0).longValue(), minute.startUtcMs());
+				assertEquals(minute.children().size(), 0);
+				expectedFrom = minute.toIndex();
+			}
+		}
+		assertEquals(expectedFrom, records.size());
+	}
+}
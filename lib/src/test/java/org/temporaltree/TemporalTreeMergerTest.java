@@ -0,0 +1,92 @@
+package org.temporaltree;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TemporalTreeMergerTest {
+	private static final long START = 1717027200000L;
+
+	@Test
+	public void testMerge() {
+		List<Long> evens = new ArrayList<>();
+		List<Long> odds = new ArrayList<>();
+		for (long i = 0; i < 1000; i++) {
+			(i % 2 == 0 ? evens : odds).add(START + i / 3 * 1000);
+		}
+		Iterator<Long> merged = TemporalTreeMerger.merge(List.of(evens.iterator(), odds.iterator(),
+				new ArrayList<Long>().iterator()), record -> record);
+		long previous = Long.MIN_VALUE;
+		int count = 0;
+		while (merged.hasNext()) {
+			long record = merged.next();
+			assertEquals(record >= previous, true);
+			previous = record;
+			count++;
+		}
+		assertEquals(count, 1000);
+	}
+
+	@Test
+	public void testMergeAggregateTrees() {
+		// the first hour is broken down in both shards, the second only in the second shard
+		List<Long> first = new ArrayList<>();
+		List<Long> second = new ArrayList<>();
+		for (long i = 0; i < 3600; i++) {
+			(i % 2 == 0 ? first : second).add(START + i * 1000);
+		}
+		for (long i = 0; i < 100; i++) {
+			first.add(START + 3600000L + i * 1000);
+		}
+		for (long i = 0; i < 1000; i++) {
+			second.add(START + 3600000L + i * 1000);
+		}
+		List<AggregateReducer<Long>> reducers = List.of(AggregateReducer.sum("sum", record -> 1),
+				AggregateReducer.max("max", record -> record));
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		List<AggregateNode> days = TemporalTreeMerger.mergeAggregateTrees(List.of(
+				generator.generateAggregateTreeChildren(first, record -> record, ZoneId.of("Z"), null, reducers),
+				generator.generateAggregateTreeChildren(second, record -> record, ZoneId.of("Z"), null, reducers)),
+				reducers);
+		assertEquals(days.size(), 1);
+		AggregateNode day = days.get(0);
+		assertEquals(day.key(), "2024-05-30");
+		assertEquals(day.count(), 4700L);
+		assertEquals(day.firstUtcMs(), START);
+		assertEquals(day.lastUtcMs(), START + 3600000L + 999000L);
+		assertEquals(day.reductions().get("sum"), 4700.0);
+		assertEquals(day.reductions().get("max"), (double) (START + 3600000L + 999000L));
+		assertEquals(day.children().size(), 2);
+		AggregateNode hour = day.children().get(0);
+		assertEquals(hour.count(), 3600L);
+		assertEquals(hour.children().size(), 60);
+		assertEquals(hour.children().get(0).count(), 60L);
+		assertEquals(day.children().get(1).count(), 1100L);
+		assertEquals(day.children().get(1).children().size(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDifferentReductions() {
+		List<Long> records = List.of(START, START + 1000);
+		List<AggregateReducer<Long>> reducers = List.of(AggregateReducer.sum("sum", record -> 1));
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		TemporalTreeMerger.mergeAggregateTrees(List.of(
+				generator.generateAggregateTreeChildren(records, record -> record, ZoneId.of("Z"), null, reducers),
+				generator.generateAggregateTreeChildren(records, record -> record, ZoneId.of("Z"), null, List.of())),
+				reducers);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDuplicateReducerNames() {
+		List<AggregateNode> shard = new TreeGenerator<Long>().generateAggregateTreeChildren(List.of(START, START + 1000),
+				record -> record, ZoneId.of("Z"), null, List.of(AggregateReducer.min("value", record -> record)));
+		List<AggregateReducer<Long>> reducers = List.of(AggregateReducer.min("value", record -> record),
+				AggregateReducer.max("value", record -> record));
+		TemporalTreeMerger.mergeAggregateTrees(List.of(shard, shard), reducers);
+	}
+}
@@ -5,10 +5,16 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
 
@@ -96,4 +102,333 @@ public class TreeGeneratorTest {
 			});
 		});
 	}
+
+	@Test
+	public void testWriteIndexTree() throws IOException {
+		TreeGenerator<String> generator = new TreeGenerator<>();
+		LeafGenerator<String> leafGenerator = record -> TreeUtils.createNodeWithChildren(record, record);
+		LeafWriter<String> leafWriter = (jsonGenerator, record) -> {
+			TreeUtils.writeNodeStart(jsonGenerator, record, record);
+			TreeUtils.writeNodeEnd(jsonGenerator);
+		};
+		List<String> records = new ArrayList<>();
+		for (int i = 0; i < 1234; i++) {
+			records.add(i + "");
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeIndexTree(outputStream, records, leafWriter, 0, records.size() - 1);
+
+		ObjectNode expected = generator.generateIndexTree(records, leafGenerator, 0, records.size() - 1);
+		assertEquals(TreeUtils.OBJECT_MAPPER.readTree(outputStream.toByteArray()), expected);
+	}
+
+	@Test
+	public void testWriteTemporalTreeChildren() throws IOException {
+		TreeGenerator<Integer> generator = new TreeGenerator<>();
+		LeafGenerator<Integer> leafGenerator = record -> TreeUtils.createNodeWithChildren(record + "", record + "");
+		LeafWriter<Integer> leafWriter = (jsonGenerator, record) -> {
+			TreeUtils.writeNodeStart(jsonGenerator, record + "", record + "");
+			TreeUtils.writeNodeEnd(jsonGenerator);
+		};
+		long start = 1717027200000L;
+		DateAccessor<Integer> dateAccessor = new DateAccessor<Integer>() {
+			@Override
+			public Instant getDateTime(Integer record) {
+				return Instant.ofEpochMilli(start + record);
+			}
+		};
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 36; i += 7) {
+			records.add(i * 1000);
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeTemporalTreeChildren(outputStream, records, dateAccessor, leafWriter, ZoneId.of("US/Eastern"), null);
+
+		ArrayNode expected = generator.generateTemporalTreeChildren(records, dateAccessor, leafGenerator, ZoneId.of("US/Eastern"), null);
+		assertEquals(TreeUtils.OBJECT_MAPPER.readTree(outputStream.toByteArray()), expected);
+	}
+
+	@Test
+	public void testGenerateTemporalTreeChildrenFromLinkedList() throws IOException {
+		// records without random access are read in order rather than by index
+		long start = 1699160400000L;
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			records.add(start + i * 997L);
+		}
+		List<Long> linkedRecords = new LinkedList<>(records);
+		LeafGenerator<Long> leafGenerator = record -> {
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		};
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		ArrayNode expected = generator.generateTemporalTreeChildren(records, record -> record, leafGenerator, zoneId,
+				null);
+		assertEquals(generator.generateTemporalTreeChildren(linkedRecords, record -> record, leafGenerator, zoneId,
+				null), expected);
+		assertEquals(TemporalTreeBinner.bin(linkedRecords, record -> record, zoneId,
+				TreeGenerator.getDefaultTreeConfiguration()), TemporalTreeBinner.bin(records, record -> record,
+						zoneId, TreeGenerator.getDefaultTreeConfiguration()));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeTemporalTreeChildren(outputStream, linkedRecords, record -> record, (jsonGenerator, record) -> {
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeStringField("key", record + "");
+			jsonGenerator.writeEndObject();
+		}, zoneId, null);
+		assertEquals(TreeUtils.OBJECT_MAPPER.readTree(outputStream.toByteArray()), expected);
+	}
+
+	@Test
+	public void testGenerateTemporalTreeChildrenParallel() {
+		TreeGenerator<Integer> generator = new TreeGenerator<>();
+		LeafGenerator<Integer> leafGenerator = record -> TreeUtils.createNodeWithChildren(record + "", record + "");
+		long start = 1730520000000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 24 * 3; i += 3) {
+			records.add(i);
+		}
+		ZoneId zoneId = ZoneId.of("US/Eastern");
+		ArrayNode expected = generator.generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, zoneId, null);
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			ArrayNode children = generator.generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, zoneId,
+					null, forkJoinPool, 1000);
+			assertEquals(children, expected);
+			// minute bins of 20 records generate their leaves in batches of 7
+			children = generator.generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, zoneId,
+					null, forkJoinPool, 10, 7);
+			assertEquals(children, expected);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void testBulkLeafGenerator() {
+		TreeGenerator<Integer> generator = new TreeGenerator<>();
+		LeafGenerator<Integer> leafGenerator = record -> TreeUtils.createNodeWithChildren(record + "", record + "");
+		int[] batches = new int[] { 0 };
+		BulkLeafGenerator<Integer> bulkLeafGenerator = batch -> {
+			batches[0]++;
+			return BulkLeafGenerator.of(leafGenerator).generateLeaves(batch);
+		};
+		long start = 1717027200000L;
+		EpochMillisAccessor<Integer> epochMillisAccessor = record -> start + record * 1000L;
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 2; i++) {
+			records.add(i);
+		}
+		ArrayNode expected = generator.generateTemporalTreeChildren(records, epochMillisAccessor, leafGenerator, ZoneId.of("Z"), null);
+		ArrayNode children = generator.generateTemporalTreeChildren(records, epochMillisAccessor, bulkLeafGenerator, ZoneId.of("Z"), null);
+		assertEquals(children, expected);
+		// one batch per minute bin
+		assertEquals(batches[0], 120);
+
+		batches[0] = 0;
+		ObjectNode indexTree = generator.generateIndexTree(records, bulkLeafGenerator, 0, 999);
+		assertEquals(indexTree, generator.generateIndexTree(records, leafGenerator, 0, 999));
+		assertEquals(batches[0], 10);
+	}
+
+	@Test
+	public void testGenerateAggregateTreeChildren() {
+		TreeGenerator<Integer> generator = new TreeGenerator<>();
+		long start = 1717027200000L;
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < 60 * 60 * 2; i++) {
+			records.add(i * 1000);
+		}
+		List<AggregateReducer<Integer>> reducers = List.of(AggregateReducer.sum("sum", record -> 1),
+				AggregateReducer.min("min", record -> record), AggregateReducer.max("max", record -> record));
+		List<AggregateNode> days = generator.generateAggregateTreeChildren(records, record -> start + record,
+				ZoneId.of("Z"), null, reducers);
+		assertEquals(days.size(), 1);
+		AggregateNode day = days.get(0);
+		assertEquals(day.key(), "2024-05-30");
+		assertEquals(day.count(), 7200L);
+		assertEquals(day.firstUtcMs(), start);
+		assertEquals(day.lastUtcMs(), start + 7199000L);
+		assertEquals(day.reductions().get("sum"), 7200.0);
+		assertEquals(day.reductions().get("min"), 0.0);
+		assertEquals(day.reductions().get("max"), 7199000.0);
+		assertEquals(day.children().size(), 2);
+		AggregateNode hour = day.children().get(1);
+		assertEquals(hour.count(), 3600L);
+		assertEquals(hour.reductions().get("min"), 3600000.0);
+		assertEquals(hour.children().size(), 60);
+		assertEquals(hour.children().get(0).count(), 60L);
+		assertEquals(hour.children().get(0).children().size(), 0);
+
+		ObjectNode node = day.toObjectNode();
+		assertEquals(node.get("count").asLong(), 7200L);
+		assertEquals(node.get("reductions").get("max").asDouble(), 7199000.0);
+		assertEquals(node.get("children").size(), 2);
+
+		List<AggregateNode> counts = TreeGenerator.generateAggregateTreeChildren(
+				TimestampColumn.of(records, record -> start + record), ZoneId.of("Z"), null);
+		assertEquals(counts.get(0).count(), 7200L);
+		assertEquals(counts.get(0).reductions().isEmpty(), true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAggregateDuplicateReducerNames() {
+		List<AggregateReducer<Integer>> reducers = List.of(AggregateReducer.min("value", record -> record),
+				AggregateReducer.max("value", record -> record));
+		new TreeGenerator<Integer>().generateAggregateTreeChildren(List.of(0, 1000), record -> record,
+				ZoneId.of("Z"), null, reducers);
+	}
+
+	@Test
+	public void testGenerateTemporalTreeChildrenFromIterator() throws IOException {
+		TreeGenerator<Long> generator = new TreeGenerator<>();
+		LeafGenerator<Long> leafGenerator = record -> {
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		};
+		LeafWriter<Long> leafWriter = (jsonGenerator, record) -> {
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeStringField("key", record + "");
+			jsonGenerator.writeEndObject();
+		};
+		// bursts across the fall back transition with quiet hours between them
+		List<Long> records = new ArrayList<>();
+		long start = 1699160400000L;
+		for (int i = 0; i < 20000; i++) {
+			records.add(start + (i / 500) * 1800000L + (i % 500) * 1000L);
+		}
+		for (int i = 0; i < 300; i++) {
+			records.add(start + 86400000L + i * 600000L);
+		}
+		for (String zone : new String[] { "Z", "US/Eastern", "Pacific/Chatham" }) {
+			ZoneId zoneId = ZoneId.of(zone);
+			ArrayNode expected = generator.generateTemporalTreeChildren(records, record -> record, leafGenerator,
+					zoneId, null);
+			assertEquals(generator.generateTemporalTreeChildren(records.stream(), record -> record, leafGenerator,
+					zoneId, null), expected);
+
+			ByteArrayOutputStream listOutput = new ByteArrayOutputStream();
+			generator.writeTemporalTreeChildren(listOutput, records, record -> record, leafWriter, zoneId, null);
+			ByteArrayOutputStream iteratorOutput = new ByteArrayOutputStream();
+			generator.writeTemporalTreeChildren(iteratorOutput, records.iterator(), record -> record, leafWriter,
+					zoneId, null);
+			assertEquals(iteratorOutput.toString(), listOutput.toString());
+		}
+	}
+
+	@Test
+	public void testMetrics() throws IOException {
+		InMemoryTreeMetrics metrics = new InMemoryTreeMetrics();
+		TreeGenerator<Long> generator = new TreeGenerator<>(metrics);
+		long start = 1717027200000L;
+		List<Long> records = new ArrayList<>();
+		// one hour broken down into minutes and four hours of leaves
+		for (int i = 0; i < 300; i++) {
+			records.add(start + i * 10000L);
+		}
+		for (int i = 0; i < 20; i++) {
+			records.add(start + 7200000L + i * 600000L);
+		}
+		ArrayNode children = generator.generateTemporalTreeChildren(records, record -> record, record -> {
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		}, ZoneId.of("Z"), null);
+		assertEquals(children.get(0).get("children").size(), 5);
+		assertEquals(metrics.getCount(TreeMetricsListener.Phase.BINNING), 1);
+		assertEquals(metrics.getCount(TreeMetricsListener.Phase.BOUNDARY_CALCULATION), 1);
+		assertEquals(metrics.getCount(TreeMetricsListener.Phase.KEY_GENERATION), 1);
+		assertEquals(metrics.getCount(TreeMetricsListener.Phase.LEAF_GENERATION), 1);
+		assertEquals(metrics.getTotalNanos(TreeMetricsListener.Phase.BINNING) > 0, true);
+		assertEquals(metrics.getBinsCreated(0), 1L);
+		assertEquals(metrics.getBinsCreated(1), 5L);
+		// minutes are also opened for the four hours of leaves, then dropped
+		assertEquals(metrics.getBinsCreated(2), 70L);
+		assertEquals(metrics.getNonEmptyBins(2), 50L);
+		assertEquals(metrics.getRecordsBinned(2), 300L);
+		assertEquals(metrics.getBreakDowns(0), 1L);
+		assertEquals(metrics.getBreakDowns(1), 1L);
+		assertEquals(metrics.getLeaves(), 320L);
+		assertEquals(metrics.getNodes(), 56L);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generator.writeTemporalTreeChildren(outputStream, records, record -> record, (jsonGenerator, record) -> {
+			jsonGenerator.writeNumber(record);
+		}, ZoneId.of("Z"), null);
+		assertEquals(metrics.getCount(TreeMetricsListener.Phase.WRITING), 1);
+		assertEquals(metrics.getBytesWritten(), (long) outputStream.size());
+
+		InMemoryTreeMetrics binnerMetrics = new InMemoryTreeMetrics();
+		DateBinner<Long> dateBinner = new DateBinner<>(ChronoUnit.HOURS, ChronoField.HOUR_OF_DAY,
+				Instant.ofEpochMilli(start), Instant.ofEpochMilli(start + 86400000L - 1), ZoneId.of("Z"), null,
+				binnerMetrics);
+		dateBinner.placeRecords(records, record -> record);
+		assertEquals(binnerMetrics.getBinsCreated(0), 24L);
+		assertEquals(binnerMetrics.getNonEmptyBins(0), 5L);
+		assertEquals(binnerMetrics.getRecordsBinned(0), 320L);
+		assertEquals(binnerMetrics.getCount(TreeMetricsListener.Phase.BOUNDARY_CALCULATION), 1);
+	}
+
+	@Test
+	public void testMetricsPaths() throws IOException {
+		long start = 1717027200000L;
+		List<Long> records = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			records.add(start + i * 10000L);
+		}
+		for (int i = 0; i < 20; i++) {
+			records.add(start + 7200000L + i * 600000L);
+		}
+		LeafGenerator<Long> leafGenerator = record -> {
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		};
+
+		InMemoryTreeMetrics parallelMetrics = new InMemoryTreeMetrics();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		new TreeGenerator<Long>(parallelMetrics).generateTemporalTreeChildren(records, record -> record,
+				leafGenerator, ZoneId.of("Z"), null, forkJoinPool, 10);
+		forkJoinPool.shutdown();
+		assertEquals(parallelMetrics.getCount(TreeMetricsListener.Phase.BINNING), 1);
+		assertEquals(parallelMetrics.getCount(TreeMetricsListener.Phase.BOUNDARY_CALCULATION), 1);
+		assertEquals(parallelMetrics.getBinsCreated(2), 70L);
+		assertEquals(parallelMetrics.getNonEmptyBins(2), 50L);
+		assertEquals(parallelMetrics.getRecordsBinned(2), 300L);
+		assertEquals(parallelMetrics.getBreakDowns(1), 1L);
+		assertEquals(parallelMetrics.getLeaves(), 320L);
+		assertEquals(parallelMetrics.getNodes(), 56L);
+
+		InMemoryTreeMetrics iteratorMetrics = new InMemoryTreeMetrics();
+		new TreeGenerator<Long>(iteratorMetrics).generateTemporalTreeChildren(records.iterator(), record -> record,
+				leafGenerator, ZoneId.of("Z"), null);
+		assertEquals(iteratorMetrics.getCount(TreeMetricsListener.Phase.LEAF_GENERATION), 1);
+		assertEquals(iteratorMetrics.getRecordsBinned(2), 300L);
+		assertEquals(iteratorMetrics.getBreakDowns(0), 1L);
+		assertEquals(iteratorMetrics.getBreakDowns(1), 1L);
+		assertEquals(iteratorMetrics.getLeaves(), 320L);
+		assertEquals(iteratorMetrics.getNodes(), 56L);
+
+		InMemoryTreeMetrics aggregateMetrics = new InMemoryTreeMetrics();
+		new TreeGenerator<Long>(aggregateMetrics).generateAggregateTreeChildren(records, record -> record,
+				ZoneId.of("Z"), null, List.of());
+		assertEquals(aggregateMetrics.getCount(TreeMetricsListener.Phase.BINNING), 1);
+		assertEquals(aggregateMetrics.getNonEmptyBins(1), 5L);
+		assertEquals(aggregateMetrics.getNodes(), 56L);
+
+		InMemoryTreeMetrics indexMetrics = new InMemoryTreeMetrics();
+		TreeGenerator<Long> indexGenerator = new TreeGenerator<>(indexMetrics);
+		indexGenerator.generateIndexTree(records, leafGenerator, new IndexTreeConfiguration(4, 10));
+		// 32 chunks, 8 and 2 parents and the root
+		assertEquals(indexMetrics.getNodes(), 43L);
+		assertEquals(indexMetrics.getLeaves(), 320L);
+		indexGenerator.generateIndexTree(records, leafGenerator, 0, records.size() - 1);
+		// the root and 4 chunks of up to 100 records
+		assertEquals(indexMetrics.getNodes(), 43L + 5);
+		assertEquals(indexMetrics.getLeaves(), 640L);
+	}
 }
@@ -0,0 +1,67 @@
+package org.temporaltree;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class TreeServiceTest {
+	private static final long START = 1717027200000L;
+
+	@Test
+	public void testGenerateTemporalTreeChildren() throws Exception {
+		List<Long> records = new ArrayList<>();
+		for (long i = 0; i < 7200; i++) {
+			records.add(START + i * 1000);
+		}
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger leaves = new AtomicInteger();
+		LeafGenerator<Long> leafGenerator = record -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			leaves.incrementAndGet();
+			ObjectNode leaf = TreeUtils.OBJECT_MAPPER.createObjectNode();
+			leaf.put("key", record + "");
+			return leaf;
+		};
+		ZoneId zoneId = ZoneId.of("Z");
+		try (TreeService<Long> service = new TreeService<>(new TreeGenerator<>(), 1, 1)) {
+			CompletableFuture<ArrayNode> first = service.generateTemporalTreeChildren("table", records,
+					record -> record, leafGenerator, zoneId, null, START, START + 3600000L);
+			// an identical request joins the build in flight, a null configuration is the default
+			CompletableFuture<ArrayNode> second = service.generateTemporalTreeChildren("table", records,
+					record -> record, leafGenerator, zoneId, TreeGenerator.getDefaultTreeConfiguration(), START,
+					START + 3600000L);
+			CompletableFuture<ArrayNode> queued = service.generateTemporalTreeChildren("table", records,
+					record -> record, leafGenerator, zoneId, null, START, START + 7200000L);
+			assertEquals(service.getAdmittedBuilds(), 2);
+			boolean rejected = false;
+			try {
+				service.generateTemporalTreeChildren("other", records, record -> record, leafGenerator, zoneId,
+						null, START, START + 7200000L);
+			} catch (RejectedExecutionException e) {
+				rejected = true;
+			}
+			assertEquals(rejected, true);
+
+			release.countDown();
+			assertEquals(first.get().get(0).get("key").asText(), "2024-05-30");
+			assertEquals(first.get().get(0).get("children").size(), 1);
+			assertEquals(second.get(), first.get());
+			assertEquals(queued.get().get(0).get("children").size(), 2);
+			assertEquals(leaves.get(), 3600 + 7200);
+		}
+	}
+}